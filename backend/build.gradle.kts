@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.7"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.pixelhub"
@@ -18,6 +19,14 @@ repositories {
     mavenCentral()
 }
 
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-web")
@@ -27,15 +36,42 @@ dependencies {
     implementation("io.jsonwebtoken:jjwt-jackson:0.11.2")
     implementation("org.liquibase:liquibase-core")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.postgresql:postgresql")
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
-    runtimeOnly("org.postgresql:postgresql")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testCompileOnly("org.projectlombok:lombok")
     testAnnotationProcessor("org.projectlombok:lombok")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmh("org.springframework.boot:spring-boot-starter-test")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the STOMP load generator against an in-process or remote backend."
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "com.pixelhub.backend.loadtest.LoadTest"
+    systemProperty("loadtest.version", project.version.toString())
+    systemProperties(providers.gradlePropertiesPrefixedBy("loadtest.").get())
+}
+
+tasks.register<JavaExec>("pixelJournal") {
+    description = "Copies placements between the pixels table and a pixel journal: -Pjournal.args=\"import|export <dir>\"."
+    group = "application"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "com.pixelhub.backend.tool.PixelJournalTool"
+    args(providers.gradleProperty("journal.args").map { it.split(" ") }.getOrElse(emptyList()))
+}
+
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
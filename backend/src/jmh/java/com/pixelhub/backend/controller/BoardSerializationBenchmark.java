@@ -0,0 +1,94 @@
+package com.pixelhub.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pixelhub.backend.codec.BoardSnapshotCodec;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.service.PixelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BoardSerializationBenchmark {
+
+    private static final String JSON = "application/json";
+
+    @Param({"0.1", "0.5", "1.0"})
+    private double fill;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PixelController pixelController;
+    private BoardSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = BoardSnapshot.empty(2000, 2000);
+        Random random = new Random(42);
+        for (int index = 0; index < snapshot.cells().length; index++) {
+            if (random.nextDouble() < fill) {
+                snapshot.paint(index % snapshot.width(), index / snapshot.width(), random.nextInt(128));
+            }
+        }
+
+        PixelService pixelService = mock(PixelService.class);
+        when(pixelService.getFullBoard()).thenReturn(snapshot);
+        pixelController = new PixelController(pixelService, objectMapper);
+    }
+
+    @Benchmark
+    public long fullBoardJson() throws IOException {
+        return write(JSON, "deflate");
+    }
+
+    @Benchmark
+    public long fullBoardBinaryRaw() throws IOException {
+        return write(BoardSnapshotCodec.MEDIA_TYPE, "raw");
+    }
+
+    @Benchmark
+    public long fullBoardBinaryRle() throws IOException {
+        return write(BoardSnapshotCodec.MEDIA_TYPE, "rle");
+    }
+
+    @Benchmark
+    public long fullBoardBinaryDeflate() throws IOException {
+        return write(BoardSnapshotCodec.MEDIA_TYPE, "deflate");
+    }
+
+    private long write(String accept, String encoding) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        pixelController.getFullBoard(accept, encoding).getBody().writeTo(out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
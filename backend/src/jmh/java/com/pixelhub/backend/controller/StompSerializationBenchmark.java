@@ -0,0 +1,78 @@
+package com.pixelhub.backend.controller;
+
+import com.pixelhub.backend.codec.PackedPixelCodec;
+import com.pixelhub.backend.model.dto.PixelBatchDto;
+import com.pixelhub.backend.model.dto.PixelDto;
+import com.pixelhub.backend.model.dto.WebSocketMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StompSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int batchSize;
+
+    private final MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    private final StompEncoder encoder = new StompEncoder();
+    private WebSocketMessage<PixelDto> single;
+    private WebSocketMessage<PixelBatchDto> batch;
+    private List<PixelDto> pixels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pixels = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            pixels.add(new PixelDto(i % 2000, i / 2000, i % 128));
+        }
+        single = new WebSocketMessage<>("update", pixels.get(0));
+        batch = new WebSocketMessage<>("batch", new PixelBatchDto(1L, pixels));
+    }
+
+    @Benchmark
+    public byte[] singlePixelFrame() {
+        return toStompFrame(single);
+    }
+
+    @Benchmark
+    public byte[] batchFrame() {
+        return toStompFrame(batch);
+    }
+
+    @Benchmark
+    public byte[] packedBatch() {
+        return PackedPixelCodec.encode(1L, pixels);
+    }
+
+    private byte[] toStompFrame(Object payload) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination("/topic/pixels");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setMessageId("1");
+        accessor.setLeaveMutable(true);
+        MessageHeaders headers = accessor.getMessageHeaders();
+        Message<?> converted = converter.toMessage(payload, headers);
+        Message<byte[]> message = MessageBuilder.createMessage((byte[]) converted.getPayload(), headers);
+        return encoder.encode(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.pixelhub.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET =
+            "uhMnYTjPFbEvWmPY1Zc88I81F6EQHX4z8TeAquNiYJa2ffZO14KiroocjqAhJO8myqjmCalPm0ANhRs0hfYW9c";
+
+    private JwtService jwtService;
+    private String validToken;
+    private String invalidToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(null);
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationMilliseconds", 604_800_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "initJwtParser");
+        validToken = ReflectionTestUtils.invokeMethod(jwtService, "generateToken", "alice");
+        invalidToken = validToken.substring(0, validToken.length() - 4) + "AAAA";
+    }
+
+    @Benchmark
+    public Optional<String> extractNickname() {
+        return jwtService.extractNickname(validToken);
+    }
+
+    @Benchmark
+    public Optional<String> extractNicknameInvalidSignature() {
+        return jwtService.extractNickname(invalidToken);
+    }
+}
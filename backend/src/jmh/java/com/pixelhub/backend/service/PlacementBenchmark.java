@@ -0,0 +1,149 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.dto.PixelDto;
+import com.pixelhub.backend.repository.PixelStore;
+import com.pixelhub.backend.repository.UserRepository;
+import com.pixelhub.backend.security.TokenPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlacementBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private PixelService pixelService;
+    private PixelWriteBehind pixelWriteBehind;
+    private TokenPrincipal[] users;
+    private PixelDto[] pixels;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PixelStore pixelStore = mock(PixelStore.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAll()).thenReturn(List.of());
+
+        BoardCanvas boardCanvas = new BoardCanvas(pixelStore, mock(BoardCheckpointService.class));
+        ReflectionTestUtils.setField(boardCanvas, "width", 2000);
+        ReflectionTestUtils.setField(boardCanvas, "height", 2000);
+        ReflectionTestUtils.setField(boardCanvas, "deltaCapacity", 100_000);
+        ReflectionTestUtils.invokeMethod(boardCanvas, "start");
+        while (!boardCanvas.isLoaded()) {
+            Thread.onSpinWait();
+        }
+
+        PlacementRateLimiter rateLimiter = new PlacementRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "rateLimitSeconds", 0);
+
+        pixelWriteBehind = new PixelWriteBehind(pixelStore, new NoOpJdbcTemplate(),
+                new TransactionTemplate(new NoOpTransactionManager()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pixelWriteBehind, "queueCapacity", 100_000);
+        ReflectionTestUtils.setField(pixelWriteBehind, "batchSize", 1000);
+        ReflectionTestUtils.setField(pixelWriteBehind, "flushIntervalMillis", 200L);
+        ReflectionTestUtils.setField(pixelWriteBehind, "retryBackoffMillis", 1000L);
+        ReflectionTestUtils.setField(pixelWriteBehind, "maxAttempts", 3);
+        ReflectionTestUtils.invokeMethod(pixelWriteBehind, "start");
+
+        LeaderboardService leaderboardService = new LeaderboardService(userRepository,
+                new SimpMessagingTemplate((message, timeout) -> true));
+        ReflectionTestUtils.setField(leaderboardService, "defaultSize", 10);
+        ReflectionTestUtils.setField(leaderboardService, "maxSize", 100);
+        ReflectionTestUtils.invokeMethod(leaderboardService, "load");
+
+        TilePyramid tilePyramid = new TilePyramid(boardCanvas, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tilePyramid, "tileSize", 256);
+        ReflectionTestUtils.setField(tilePyramid, "cacheBytes", 64L << 20);
+        ReflectionTestUtils.invokeMethod(tilePyramid, "init");
+
+        pixelService = new PixelService(rateLimiter, boardCanvas, pixelWriteBehind, null, leaderboardService,
+                tilePyramid, new LoopbackPixelRelay(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pixelService, "canvasWidth", 2000);
+        ReflectionTestUtils.setField(pixelService, "canvasHeight", 2000);
+        ReflectionTestUtils.setField(pixelService, "minColor", 0);
+        ReflectionTestUtils.setField(pixelService, "maxColor", 127);
+        ReflectionTestUtils.setField(pixelService, "ringSize", 65_536);
+        ReflectionTestUtils.setField(pixelService, "drainLimit", 256);
+        ReflectionTestUtils.setField(pixelService, "idleParkMicros", 1000L);
+        ReflectionTestUtils.invokeMethod(pixelService, "start");
+
+        users = new TokenPrincipal[USERS];
+        pixels = new PixelDto[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new TokenPrincipal("user-" + i, i);
+            pixels[i] = new PixelDto((i * 7919) % 2000, (i * 104729) % 2000, i % 128);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(pixelService, "stop");
+        ReflectionTestUtils.invokeMethod(pixelWriteBehind, "stop");
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return pixelService.isValid(pixels[nextIndex()]);
+    }
+
+    // Measures the inbound side only: the placement is applied on the writer thread.
+    @Benchmark
+    public void placePixel() {
+        int index = nextIndex();
+        pixelService.placePixel(pixels[index], users[index]);
+    }
+
+    private int nextIndex() {
+        next = next + 1 == USERS ? 0 : next + 1;
+        return next;
+    }
+
+    private static final class NoOpJdbcTemplate extends JdbcTemplate {
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            return new int[0][];
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
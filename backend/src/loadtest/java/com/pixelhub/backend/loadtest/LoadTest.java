@@ -0,0 +1,359 @@
+package com.pixelhub.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pixelhub.backend.BackendApplication;
+import com.pixelhub.backend.codec.BoardSnapshotCodec;
+import com.pixelhub.backend.model.dto.PixelDto;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens {@code loadtest.sessions} STOMP sessions against a running backend (or one started
+ * in-process when {@code loadtest.target} is empty), places pixels at {@code loadtest.rate}
+ * per second and polls {@code /full-board} from {@code loadtest.board-clients} clients.
+ * Run with {@code ./gradlew loadTest}; results land in {@code build/reports/loadtest}.
+ * <p>
+ * With {@code loadtest.thread-modes=platform,virtual} the in-process backend is started once per
+ * mode, with {@code spring.threads.virtual.enabled} off and on, the same load runs against each
+ * and the modes are reported side by side in {@code thread-modes.md}.
+ */
+public class LoadTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+    private final LatencyRecorder broadcastLatency = new LatencyRecorder();
+    private final LatencyRecorder boardLatency = new LatencyRecorder();
+    private final AtomicLong placed = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong boardBytes = new AtomicLong();
+    private final AtomicLong boardErrors = new AtomicLong();
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        if (options.threadModes().isEmpty()) {
+            run(options, args, null, "report");
+            return;
+        }
+        if (!options.inProcess()) {
+            throw new IllegalArgumentException("loadtest.thread-modes starts the backend itself, leave loadtest.target empty");
+        }
+
+        for (String mode : options.threadModes()) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown thread mode " + mode + ", expected platform or virtual");
+            }
+        }
+
+        Map<String, Map<String, Object>> reports = new LinkedHashMap<>();
+        for (String mode : options.threadModes()) {
+            reports.put(mode, run(options, args, mode, "report-" + mode));
+        }
+        String comparison = compareMarkdown(reports);
+        Files.writeString(Path.of("build", "reports", "loadtest", "thread-modes.md"), comparison);
+        System.out.println(comparison);
+    }
+
+    /**
+     * Runs the load once, against a backend started in-process in {@code threadMode} unless a
+     * target is given, and writes {@code <name>.json} and {@code <name>.md}.
+     */
+    private static Map<String, Object> run(LoadTestOptions options, String[] args, String threadMode, String name)
+            throws Exception {
+        ConfigurableApplicationContext context = null;
+        String target = options.target();
+        if (options.inProcess()) {
+            // Arguments, since default properties lose to application.properties.
+            List<String> runArgs = new ArrayList<>(Arrays.asList(args));
+            runArgs.add("--server.port=0");
+            runArgs.add("--app.rate-limit-seconds=0");
+            if (threadMode != null) {
+                runArgs.add("--spring.threads.virtual.enabled=" + threadMode.equals("virtual"));
+            }
+            context = new SpringApplicationBuilder(BackendApplication.class).run(runArgs.toArray(String[]::new));
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            return new LoadTest(options).run(target.replaceAll("/+$", ""), threadMode, name);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private Map<String, Object> run(String target, String threadMode, String name) throws Exception {
+        awaitReady(target);
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> tokens = issueTokens(target, runId);
+        WebSocketStompClient stompClient = stompClient();
+        List<PainterSession> painters = connect(stompClient, target, tokens);
+
+        ScheduledExecutorService placer = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService boardPollers = Executors.newFixedThreadPool(Math.max(1, options.boardClients()));
+        long deadline = System.nanoTime() + options.duration().toNanos();
+        try {
+            for (int i = 0; i < options.boardClients(); i++) {
+                boardPollers.submit(() -> pollBoard(target, deadline));
+            }
+            placer.scheduleAtFixedRate(new Placer(painters), 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+            TimeUnit.NANOSECONDS.sleep(options.duration().toNanos());
+            placer.shutdownNow();
+            TimeUnit.MILLISECONDS.sleep(options.drain().toMillis());
+        } finally {
+            placer.shutdownNow();
+            boardPollers.shutdownNow();
+            boardPollers.awaitTermination(10, TimeUnit.SECONDS);
+            painters.forEach(PainterSession::close);
+            stompClient.stop();
+        }
+
+        return writeReport(target, threadMode, name);
+    }
+
+    private List<String> issueTokens(String target, String runId) throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>(options.sessions());
+        for (int i = 0; i < options.sessions(); i++) {
+            String body = objectMapper.writeValueAsString(Map.of("nickname", "loadtest-" + runId + "-" + i));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/token"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("POST /token returned " + response.statusCode() + ": " + response.body());
+            }
+            tokens.add(objectMapper.readTree(response.body()).path("token").asText());
+        }
+        return tokens;
+    }
+
+    private WebSocketStompClient stompClient() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("loadtest-heartbeat-");
+        scheduler.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(scheduler);
+        return stompClient;
+    }
+
+    private List<PainterSession> connect(WebSocketStompClient stompClient, String target, List<String> tokens) {
+        List<CompletableFuture<StompSession>> futures = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", token);
+            futures.add(stompClient.connectAsync(target + "/ws", new WebSocketHttpHeaders(), connectHeaders,
+                    new StompSessionHandlerAdapter() {
+                    }));
+        }
+
+        List<PainterSession> painters = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            StompSession session = futures.get(i).orTimeout(30, TimeUnit.SECONDS).join();
+            LatencyRecorder recorder = i < options.observers() ? broadcastLatency : null;
+            painters.add(new PainterSession(session, inFlight, recorder, received));
+        }
+        return painters;
+    }
+
+    private void awaitReady(String target) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Backend at " + target + " did not become ready");
+            }
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+
+    private void pollBoard(String target, long deadline) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/full-board"))
+                .header("Accept", BoardSnapshotCodec.MEDIA_TYPE)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    boardLatency.record(System.nanoTime() - start);
+                    boardBytes.addAndGet(response.body().length);
+                } else {
+                    boardErrors.incrementAndGet();
+                }
+                TimeUnit.MILLISECONDS.sleep(options.boardInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                boardErrors.incrementAndGet();
+            }
+        }
+    }
+
+    private Map<String, Object> writeReport(String target, String threadMode, String name) throws IOException {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("target", options.inProcess() ? "in-process" : target);
+        if (threadMode != null) {
+            config.put("threadMode", threadMode);
+        }
+        config.put("sessions", options.sessions());
+        config.put("observers", Math.min(options.observers(), options.sessions()));
+        config.put("placementsPerSecond", options.placementsPerSecond());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("boardClients", options.boardClients());
+
+        Map<String, Object> board = new LinkedHashMap<>(boardLatency.summary());
+        board.put("errors", boardErrors.get());
+        long boardRequests = ((Number) board.get("count")).longValue();
+        board.put("avgBytes", boardRequests == 0 ? 0 : boardBytes.get() / boardRequests);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("version", options.version());
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("placed", placed.get());
+        report.put("broadcastPixelsReceived", received.get());
+        report.put("placementToBroadcast", broadcastLatency.summary());
+        report.put("fullBoard", board);
+
+        Path directory = Path.of("build", "reports", "loadtest");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(name + ".json"), objectMapper.writeValueAsString(report));
+        Files.writeString(directory.resolve(name + ".md"), markdown(report));
+        System.out.println(objectMapper.writeValueAsString(report));
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String markdown(Map<String, Object> report) {
+        Map<String, Object> broadcast = (Map<String, Object>) report.get("placementToBroadcast");
+        Map<String, Object> board = (Map<String, Object>) report.get("fullBoard");
+        StringBuilder markdown = new StringBuilder()
+                .append("# Load test ").append(report.get("version")).append(" (").append(report.get("finishedAt")).append(")\n\n")
+                .append("Config: `").append(report.get("config")).append("`\n\n")
+                .append("Placed: ").append(report.get("placed"))
+                .append(", broadcast pixels received: ").append(report.get("broadcastPixelsReceived")).append("\n\n")
+                .append("| Metric | Count | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms |\n")
+                .append("|---|---|---|---|---|---|---|\n");
+        appendRow(markdown, "placement → broadcast", broadcast);
+        appendRow(markdown, "GET /full-board", board);
+        markdown.append("\n/full-board errors: ").append(board.get("errors"))
+                .append(", average payload: ").append(board.get("avgBytes")).append(" bytes\n");
+        return markdown.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String compareMarkdown(Map<String, Map<String, Object>> reports) {
+        Map<String, Object> first = reports.values().iterator().next();
+        StringBuilder markdown = new StringBuilder()
+                .append("# Thread modes ").append(first.get("version")).append("\n\n")
+                .append("Config: `").append(first.get("config")).append("`\n\n")
+                .append("| Metric | Count | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms |\n")
+                .append("|---|---|---|---|---|---|---|\n");
+        reports.forEach((mode, report) -> appendRow(markdown, "placement → broadcast, " + mode,
+                (Map<String, Object>) report.get("placementToBroadcast")));
+        reports.forEach((mode, report) -> appendRow(markdown, "GET /full-board, " + mode,
+                (Map<String, Object>) report.get("fullBoard")));
+        markdown.append('\n');
+        reports.forEach((mode, report) -> markdown.append(mode).append(": placed ").append(report.get("placed"))
+                .append(", broadcast pixels received ").append(report.get("broadcastPixelsReceived")).append('\n'));
+        return markdown.toString();
+    }
+
+    private static void appendRow(StringBuilder markdown, String name, Map<String, Object> summary) {
+        markdown.append(String.format(Locale.ROOT, "| %s | %s | %.2f | %.2f | %.2f | %.2f | %.2f |%n", name,
+                summary.get("count"), summary.get("p50Millis"), summary.get("p90Millis"),
+                summary.get("p99Millis"), summary.get("p999Millis"), summary.get("maxMillis")));
+    }
+
+    /**
+     * Spreads the configured rate over the sessions, each placement on a fresh cell and colour
+     * so that its broadcast can be matched back to the send time.
+     */
+    private final class Placer implements Runnable {
+
+        private final List<PainterSession> painters;
+        private double budget;
+        private int nextPainter;
+        private long nextCell;
+
+        private Placer(List<PainterSession> painters) {
+            this.painters = painters;
+        }
+
+        @Override
+        public void run() {
+            budget += options.placementsPerSecond() * TICK_MILLIS / 1000.0;
+            long cells = (long) options.canvasWidth() * options.canvasHeight();
+            while (budget >= 1) {
+                budget--;
+                long cell = nextCell++ % cells;
+                int x = (int) (cell % options.canvasWidth());
+                int y = (int) (cell / options.canvasWidth());
+                int color = (int) ((nextCell / cells) % 128);
+                inFlight.put(PainterSession.key(x, y, color), System.nanoTime());
+
+                PainterSession painter = painters.get(nextPainter);
+                nextPainter = (nextPainter + 1) % painters.size();
+                try {
+                    painter.place(new PixelDto(x, y, color));
+                    placed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    inFlight.remove(PainterSession.key(x, y, color));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.pixelhub.backend.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+record LoadTestOptions(
+        String target,
+        int sessions,
+        int observers,
+        double placementsPerSecond,
+        Duration duration,
+        Duration drain,
+        int boardClients,
+        Duration boardInterval,
+        int canvasWidth,
+        int canvasHeight,
+        List<String> threadModes,
+        String version
+) {
+
+    static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                System.getProperty("loadtest.target", ""),
+                Integer.getInteger("loadtest.sessions", 100),
+                Integer.getInteger("loadtest.observers", 10),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                Duration.ofSeconds(Long.getLong("loadtest.drain-seconds", 3)),
+                Integer.getInteger("loadtest.board-clients", 4),
+                Duration.ofMillis(Long.getLong("loadtest.board-interval-ms", 1000)),
+                Integer.getInteger("loadtest.canvas-width", 2000),
+                Integer.getInteger("loadtest.canvas-height", 2000),
+                Arrays.stream(System.getProperty("loadtest.thread-modes", "").split(","))
+                        .map(String::strip)
+                        .filter(mode -> !mode.isEmpty())
+                        .toList(),
+                System.getProperty("loadtest.version", "unknown")
+        );
+    }
+
+    boolean inProcess() {
+        return target.isBlank();
+    }
+}
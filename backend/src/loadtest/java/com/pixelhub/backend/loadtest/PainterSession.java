@@ -0,0 +1,74 @@
+package com.pixelhub.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pixelhub.backend.model.dto.PixelDto;
+import com.pixelhub.backend.model.dto.WebSocketMessage;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One simulated painter: places pixels on {@code /app/pixel} and watches {@code /topic/pixels}.
+ * Observers additionally match every broadcast pixel against the placements in flight and
+ * record the placement-to-broadcast latency.
+ */
+final class PainterSession implements StompFrameHandler {
+
+    static final String PIXELS_TOPIC = "/topic/pixels";
+    static final String PIXEL_DESTINATION = "/app/pixel";
+
+    private final StompSession session;
+    private final Map<Long, Long> inFlight;
+    private final LatencyRecorder recorder;
+    private final AtomicLong received;
+
+    PainterSession(StompSession session, Map<Long, Long> inFlight, LatencyRecorder recorder, AtomicLong received) {
+        this.session = session;
+        this.inFlight = inFlight;
+        this.recorder = recorder;
+        this.received = received;
+        session.subscribe(PIXELS_TOPIC, this);
+    }
+
+    static long key(int x, int y, int color) {
+        return ((long) x << 32) | ((long) y << 8) | color;
+    }
+
+    void place(PixelDto pixel) {
+        session.send(PIXEL_DESTINATION, new WebSocketMessage<>("send", pixel));
+    }
+
+    void close() {
+        if (session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return JsonNode.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        long now = System.nanoTime();
+        JsonNode message = (JsonNode) payload;
+        if (!"batch".equals(message.path("type").asText())) {
+            return;
+        }
+        for (JsonNode pixel : message.path("content").path("pixels")) {
+            received.incrementAndGet();
+            if (recorder == null) {
+                continue;
+            }
+            Long sentAt = inFlight.get(key(pixel.path("x").asInt(), pixel.path("y").asInt(), pixel.path("c").asInt()));
+            if (sentAt != null) {
+                recorder.record(now - sentAt);
+            }
+        }
+    }
+}
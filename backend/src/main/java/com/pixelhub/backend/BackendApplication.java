@@ -3,11 +3,13 @@ package com.pixelhub.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 
 @SpringBootApplication
 @EnableJpaRepositories
 @EnableWebSocketMessageBroker
+@EnableScheduling
 public class BackendApplication {
 
     public static void main(String[] args) {
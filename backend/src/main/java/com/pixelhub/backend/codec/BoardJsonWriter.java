@@ -0,0 +1,32 @@
+package com.pixelhub.backend.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+
+import java.io.IOException;
+
+/**
+ * Writes the painted cells of a snapshot as the {@code "pixels"} array of the JSON board
+ * representation straight from the cell array, without building a {@code PixelDto} per cell.
+ */
+public final class BoardJsonWriter {
+
+    private BoardJsonWriter() {
+    }
+
+    public static void writePixelsField(JsonGenerator generator, BoardSnapshot snapshot, int originX, int originY)
+            throws IOException {
+        generator.writeArrayFieldStart("pixels");
+        byte[] cells = snapshot.cells();
+        for (int index = 0; index < cells.length; index++) {
+            if (snapshot.isPainted(index)) {
+                generator.writeStartObject();
+                generator.writeNumberField("x", originX + index % snapshot.width());
+                generator.writeNumberField("y", originY + index / snapshot.width());
+                generator.writeNumberField("c", cells[index]);
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+    }
+}
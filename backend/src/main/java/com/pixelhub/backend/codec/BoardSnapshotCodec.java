@@ -0,0 +1,160 @@
+package com.pixelhub.backend.codec;
+
+import com.pixelhub.backend.model.board.BoardSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary board format: a 14 byte big-endian header followed by the encoded cells.
+ * <pre>
+ * magic "PXHB" | version u8 | encoding u8 | width i32 | height i32 | payload
+ * </pre>
+ * Cells are palette indices in row-major order, {@code 0xFF} marks an unpainted cell.
+ * The raw payload is the cell array as is, RLE is a sequence of {@code (run u8, value u8)}
+ * pairs and deflate is the raw payload in zlib format.
+ */
+public final class BoardSnapshotCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.pixelhub.board";
+    public static final int HEADER_SIZE = 14;
+
+    private static final byte[] MAGIC = {'P', 'X', 'H', 'B'};
+    private static final byte VERSION = 1;
+
+    public enum Encoding {
+        RAW(0), RLE(1), DEFLATE(2);
+
+        private final byte id;
+
+        Encoding(int id) {
+            this.id = (byte) id;
+        }
+
+        private static Encoding of(byte id) {
+            for (Encoding encoding : values()) {
+                if (encoding.id == id) {
+                    return encoding;
+                }
+            }
+            throw new IllegalArgumentException("Unknown board encoding " + id);
+        }
+
+        public static Encoding parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private BoardSnapshotCodec() {
+    }
+
+    public static byte[] encode(BoardSnapshot snapshot, Encoding encoding) {
+        return switch (encoding) {
+            case RAW -> withHeader(snapshot, encoding, snapshot.cells(), snapshot.cells().length);
+            case RLE -> {
+                ByteArrayOutputStream out = runLengthEncode(snapshot.cells());
+                yield withHeader(snapshot, encoding, out.toByteArray(), out.size());
+            }
+            case DEFLATE -> {
+                ByteArrayOutputStream out = deflate(snapshot.cells());
+                yield withHeader(snapshot, encoding, out.toByteArray(), out.size());
+            }
+        };
+    }
+
+    public static BoardSnapshot decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Not a board snapshot");
+        }
+        Encoding encoding = Encoding.of(buffer.get());
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+
+        byte[] cells = switch (encoding) {
+            case RAW -> Arrays.copyOfRange(data, HEADER_SIZE, HEADER_SIZE + width * height);
+            case RLE -> runLengthDecode(data, width * height);
+            case DEFLATE -> inflate(data, width * height);
+        };
+        return new BoardSnapshot(width, height, cells, 0);
+    }
+
+    private static byte[] withHeader(BoardSnapshot snapshot, Encoding encoding, byte[] payload, int length) {
+        return ByteBuffer.allocate(HEADER_SIZE + length)
+                .put(MAGIC)
+                .put(VERSION)
+                .put(encoding.id)
+                .putInt(snapshot.width())
+                .putInt(snapshot.height())
+                .put(payload, 0, length)
+                .array();
+    }
+
+    private static ByteArrayOutputStream runLengthEncode(byte[] cells) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(cells.length / 8);
+        int index = 0;
+        while (index < cells.length) {
+            byte value = cells[index];
+            int run = 1;
+            while (run < 255 && index + run < cells.length && cells[index + run] == value) {
+                run++;
+            }
+            out.write(run);
+            out.write(value);
+            index += run;
+        }
+        return out;
+    }
+
+    private static byte[] runLengthDecode(byte[] data, int size) {
+        byte[] cells = new byte[size];
+        int offset = 0;
+        for (int index = HEADER_SIZE; index + 1 < data.length; index += 2) {
+            int run = Byte.toUnsignedInt(data[index]);
+            Arrays.fill(cells, offset, offset + run, data[index + 1]);
+            offset += run;
+        }
+        return cells;
+    }
+
+    private static byte[] inflate(byte[] data, int size) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_SIZE, data.length - HEADER_SIZE);
+            byte[] cells = new byte[size];
+            int offset = 0;
+            while (offset < size && !inflater.finished()) {
+                offset += inflater.inflate(cells, offset, size - offset);
+            }
+            return cells;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted board snapshot", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteArrayOutputStream deflate(byte[] cells) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(cells);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(cells.length / 8);
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out;
+        } finally {
+            deflater.end();
+        }
+    }
+}
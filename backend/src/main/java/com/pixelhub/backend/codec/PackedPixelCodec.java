@@ -0,0 +1,60 @@
+package com.pixelhub.backend.codec;
+
+import com.pixelhub.backend.model.dto.PixelDto;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Packed pixel frames for the binary STOMP endpoint.
+ * <pre>
+ * type u8 | sequence i64 | records...
+ * record: x u16 | y u16 | color u8
+ * </pre>
+ * All values are big-endian. Clients send a zero sequence, the server ignores it.
+ * A resync frame carries no records and tells the client to reload the board.
+ */
+public final class PackedPixelCodec {
+
+    public static final byte TYPE_PIXELS = 1;
+    public static final byte TYPE_RESYNC = 2;
+    public static final int HEADER_SIZE = 9;
+    public static final int RECORD_SIZE = 5;
+
+    private PackedPixelCodec() {
+    }
+
+    public static byte[] encode(long sequence, Collection<PixelDto> pixels) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + pixels.size() * RECORD_SIZE);
+        buffer.put(TYPE_PIXELS).putLong(sequence);
+        for (PixelDto pixel : pixels) {
+            buffer.putShort((short) pixel.getX().intValue())
+                    .putShort((short) pixel.getY().intValue())
+                    .put((byte) pixel.getC().intValue());
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encodeResync(long sequence) {
+        return ByteBuffer.allocate(HEADER_SIZE).put(TYPE_RESYNC).putLong(sequence).array();
+    }
+
+    public static List<PixelDto> decode(byte[] frame) {
+        if (frame.length < HEADER_SIZE || frame[0] != TYPE_PIXELS
+            || (frame.length - HEADER_SIZE) % RECORD_SIZE != 0) {
+            return List.of();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(frame, HEADER_SIZE, frame.length - HEADER_SIZE);
+        List<PixelDto> pixels = new ArrayList<>(buffer.remaining() / RECORD_SIZE);
+        while (buffer.hasRemaining()) {
+            int x = Short.toUnsignedInt(buffer.getShort());
+            int y = Short.toUnsignedInt(buffer.getShort());
+            int color = Byte.toUnsignedInt(buffer.get());
+            pixels.add(new PixelDto(x, y, color));
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,82 @@
+package com.pixelhub.backend.codec;
+
+import com.pixelhub.backend.model.board.BoardSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Timelapse stream: the board at the start time followed by one delta frame per interval.
+ * <pre>
+ * magic "PXHT" | version u8 | start i64 (epoch ms) | interval i64 (ms) | frames i32
+ * | board length i32 | board (see {@link BoardSnapshotCodec}, deflate)
+ * | frame... : count i32 | records...
+ * record: x u16 | y u16 | color u8
+ * </pre>
+ * Frame {@code n} brings the board to {@code start + (n + 1) * interval} (the last frame is
+ * clipped to the end time) and lists every cell whose colour changed within it once, with its
+ * final colour. All values are big-endian.
+ */
+public final class TimelapseCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.pixelhub.timelapse";
+    public static final int RECORD_SIZE = 5;
+
+    private static final byte[] MAGIC = {'P', 'X', 'H', 'T'};
+    private static final byte VERSION = 1;
+
+    private TimelapseCodec() {
+    }
+
+    public static Writer writer(OutputStream out, BoardSnapshot initial, long startMillis, long intervalMillis,
+                                int frames) throws IOException {
+        return new Writer(out, initial, startMillis, intervalMillis, frames);
+    }
+
+    /**
+     * Writes straight to the given stream through a buffer; {@link #flush()} once the last frame is written.
+     */
+    public static final class Writer {
+
+        private final DataOutputStream out;
+        private final int width;
+
+        private Writer(OutputStream target, BoardSnapshot initial, long startMillis, long intervalMillis, int frames)
+                throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(target));
+            width = initial.width();
+            byte[] board = BoardSnapshotCodec.encode(initial, BoardSnapshotCodec.Encoding.DEFLATE);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startMillis);
+            out.writeLong(intervalMillis);
+            out.writeInt(frames);
+            out.writeInt(board.length);
+            out.write(board);
+        }
+
+        /**
+         * Writes a frame from a map of row-major cell index to colour.
+         */
+        public void writeFrame(Map<Integer, Integer> changes) throws IOException {
+            out.writeInt(changes.size());
+            for (Map.Entry<Integer, Integer> change : changes.entrySet()) {
+                int cell = change.getKey();
+                out.writeShort(cell % width);
+                out.writeShort(cell / width);
+                out.writeByte(change.getValue());
+            }
+        }
+
+        public long size() {
+            return out.size();
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.pixelhub.backend.config;
 
 import com.pixelhub.backend.exception.TokenParseException;
+import com.pixelhub.backend.model.entity.User;
 import com.pixelhub.backend.security.TokenPrincipal;
 import com.pixelhub.backend.service.JwtService;
+import com.pixelhub.backend.service.PlacementRateLimiter;
+import com.pixelhub.backend.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -19,6 +25,18 @@ import java.util.List;
 public class AuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtService jwtService;
+    private final UserService userService;
+    private final PlacementRateLimiter placementRateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    private Counter invalidTokenCounter;
+    private Counter unknownUserCounter;
+
+    @PostConstruct
+    private void initMetrics() {
+        invalidTokenCounter = failureCounter("invalid_token");
+        unknownUserCounter = failureCounter("unknown_user");
+    }
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -29,13 +47,25 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
             List<String> authorization = accessor.getNativeHeader("Authorization");
             if (authorization != null && !authorization.isEmpty()) {
                 String token = authorization.get(0);
-                String nickname = jwtService.extractNickname(token).orElseThrow(() ->
-                        new TokenParseException(token)
-                );
-                TokenPrincipal userPrincipal = new TokenPrincipal(nickname);
+                String nickname = jwtService.extractNickname(token).orElseThrow(() -> {
+                    invalidTokenCounter.increment();
+                    return new TokenParseException(token);
+                });
+                User user = userService.findByNickname(nickname).orElseThrow(() -> {
+                    unknownUserCounter.increment();
+                    return new TokenParseException("Unknown user " + nickname);
+                });
+                placementRateLimiter.seed(user.getId(), user.getLastPlacedAt());
+                TokenPrincipal userPrincipal = new TokenPrincipal(nickname, user.getId());
                 accessor.setUser(userPrincipal);
             }
         }
         return message;
     }
+
+    private Counter failureCounter(String reason) {
+        return Counter.builder("pixelhub.auth.failures")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 }
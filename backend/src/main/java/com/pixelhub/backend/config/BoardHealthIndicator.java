@@ -0,0 +1,28 @@
+package com.pixelhub.backend.config;
+
+import com.pixelhub.backend.service.BoardCanvas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the board as down until it has been loaded. Part of the readiness group, so load
+ * balancers hold traffic back from an instance that would still answer with an empty board.
+ */
+@Component
+@RequiredArgsConstructor
+public class BoardHealthIndicator implements HealthIndicator {
+
+    private final BoardCanvas boardCanvas;
+
+    @Override
+    public Health health() {
+        if (boardCanvas.isLoaded()) {
+            return Health.up().build();
+        }
+        return boardCanvas.getLoadFailure()
+                .map(failure -> Health.down(failure).build())
+                .orElseGet(() -> Health.outOfService().withDetail("reason", "loading").build());
+    }
+}
@@ -13,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("https://pixelhub-itmo.ru", "https://www.pixelhub-itmo.ru")
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Board-Sequence")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
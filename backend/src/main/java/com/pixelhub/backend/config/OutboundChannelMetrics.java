@@ -0,0 +1,45 @@
+package com.pixelhub.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts messages handed to the client outbound channel that no executor thread has picked up
+ * yet. Works the same for the pooled and the virtual-thread executor.
+ */
+@Component
+public class OutboundChannelMetrics implements ExecutorChannelInterceptor {
+
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboundChannelMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("pixelhub.stomp.outbound.pending", pending, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        pending.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent || ex != null) {
+            pending.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        pending.decrementAndGet();
+        return message;
+    }
+}
@@ -0,0 +1,222 @@
+package com.pixelhub.backend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pixelhub.backend.codec.PackedPixelCodec;
+import com.pixelhub.backend.model.dto.WebSocketMessage;
+import com.pixelhub.backend.service.BoardCanvas;
+import com.pixelhub.backend.service.PixelBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps pixel updates from piling up for sessions that cannot keep up. Every MESSAGE frame
+ * handed to the outbound channel is counted per session and uncounted once it is written to
+ * the socket. When a session has more than {@code app.websocket.lag-threshold} frames in flight,
+ * the next pixel update is replaced by a resync marker and further pixel updates are dropped
+ * until the marker has been written; the client then reloads the board from its last sequence.
+ */
+@Slf4j
+@Component
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE".getBytes(StandardCharsets.US_ASCII);
+
+    private final BoardCanvas boardCanvas;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final Counter resyncCounter;
+    private final Counter droppedCounter;
+    private final Counter slowDisconnectCounter;
+    private final Counter closedCounter;
+
+    @Value("${app.websocket.lag-threshold:200}")
+    private int lagThreshold;
+
+    public SlowConsumerGuard(BoardCanvas boardCanvas, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.boardCanvas = boardCanvas;
+        this.objectMapper = objectMapper;
+        Gauge.builder("pixelhub.stomp.lagging.sessions", sessions,
+                        states -> states.values().stream().filter(SessionState::isLagging).count())
+                .register(meterRegistry);
+        resyncCounter = Counter.builder("pixelhub.stomp.lagging.resyncs")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("pixelhub.stomp.lagging.dropped")
+                .register(meterRegistry);
+        slowDisconnectCounter = Counter.builder("pixelhub.stomp.disconnects")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+        closedCounter = Counter.builder("pixelhub.stomp.disconnects")
+                .tag("reason", "closed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getSessionId() == null) {
+            return message;
+        }
+        SessionState state = sessions.get(accessor.getSessionId());
+        if (state == null) {
+            return message;
+        }
+
+        boolean droppable = isPixelDestination(accessor.getDestination());
+        long behind;
+        synchronized (state) {
+            if (droppable && state.resyncPosition >= 0) {
+                droppedCounter.increment();
+                return null;
+            }
+            behind = state.enqueued - state.written;
+            state.enqueued++;
+            if (!droppable || behind <= lagThreshold) {
+                return message;
+            }
+            state.resyncPosition = state.enqueued;
+        }
+        resyncCounter.increment();
+        log.debug("Session {} is {} frames behind, replacing pixel updates with a resync",
+                accessor.getSessionId(), behind);
+        // Built outside the session lock: reading the sequence takes the canvas monitor.
+        return resyncMarker(message, accessor.getDestination());
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent && ex == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionState state = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (accessor.getMessageType() == SimpMessageType.MESSAGE && state != null) {
+            synchronized (state) {
+                state.enqueued--;
+            }
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionState state = new SessionState();
+                sessions.put(session.getId(), state);
+                super.afterConnectionEstablished(new CountingSession(session, state));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    slowDisconnectCounter.increment();
+                } else {
+                    closedCounter.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private boolean isPixelDestination(String destination) {
+        return destination != null && (destination.equals(PixelBroadcaster.PIXELS_TOPIC)
+                || destination.equals(PixelBroadcaster.PACKED_PIXELS_TOPIC)
+                || destination.startsWith(PixelBroadcaster.TILES_TOPIC_PREFIX));
+    }
+
+    private Message<byte[]> resyncMarker(Message<?> message, String destination) {
+        long sequence = boardCanvas.latestSequence();
+        byte[] payload;
+        if (PixelBroadcaster.PACKED_PIXELS_TOPIC.equals(destination)) {
+            payload = PackedPixelCodec.encodeResync(sequence);
+        } else {
+            try {
+                payload = objectMapper.writeValueAsBytes(new WebSocketMessage<>("resync", sequence));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to encode resync marker", e);
+            }
+        }
+        return MessageBuilder.createMessage(payload, message.getHeaders());
+    }
+
+    private static boolean isMessageFrame(org.springframework.web.socket.WebSocketMessage<?> frame) {
+        if (frame instanceof TextMessage text) {
+            return text.getPayload().startsWith("MESSAGE");
+        }
+        if (frame instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            if (payload.remaining() < MESSAGE_COMMAND.length) {
+                return false;
+            }
+            for (byte expected : MESSAGE_COMMAND) {
+                if (payload.get() != expected) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class SessionState {
+        private long enqueued;
+        private long written;
+        private long resyncPosition = -1;
+
+        private synchronized boolean isLagging() {
+            return resyncPosition >= 0;
+        }
+
+        private synchronized void onWritten() {
+            written++;
+            if (resyncPosition >= 0 && written >= resyncPosition) {
+                resyncPosition = -1;
+            }
+        }
+    }
+
+    private static final class CountingSession extends WebSocketSessionDecorator {
+
+        private final SessionState state;
+
+        private CountingSession(WebSocketSession session, SessionState state) {
+            super(session);
+            this.state = state;
+        }
+
+        @Override
+        public void sendMessage(org.springframework.web.socket.WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            if (isMessageFrame(message)) {
+                state.onWritten();
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.pixelhub.backend.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -14,11 +17,33 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final AuthChannelInterceptor authChannelInterceptor;
+    private final OutboundChannelMetrics outboundChannelMetrics;
+    private final SlowConsumerGuard slowConsumerGuard;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${app.executor.inbound.core-size:16}")
+    private int inboundCoreSize;
+    @Value("${app.executor.inbound.max-size:64}")
+    private int inboundMaxSize;
+    @Value("${app.executor.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+    @Value("${app.executor.outbound.core-size:16}")
+    private int outboundCoreSize;
+    @Value("${app.executor.outbound.max-size:64}")
+    private int outboundMaxSize;
+    @Value("${app.executor.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+    @Value("${app.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+    @Value("${app.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -26,10 +51,38 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        registry.addEndpoint("/ws-bin")
+                .setAllowedOriginPatterns("*");
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(authChannelInterceptor);
+        configureExecutor(registration, "stomp-inbound-", inboundCoreSize, inboundMaxSize, inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(slowConsumerGuard, outboundChannelMetrics);
+        configureExecutor(registration, "stomp-outbound-", outboundCoreSize, outboundMaxSize, outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
+    private void configureExecutor(ChannelRegistration registration, String threadNamePrefix,
+                                   int coreSize, int maxSize, int queueCapacity) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor(threadNamePrefix));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(coreSize)
+                    .maxPoolSize(maxSize)
+                    .queueCapacity(queueCapacity);
+        }
     }
 }
@@ -1,7 +1,11 @@
 package com.pixelhub.backend.controller;
 
+import com.pixelhub.backend.exception.BoardNotReadyException;
+import com.pixelhub.backend.exception.TimelapseBusyException;
 import com.pixelhub.backend.model.dto.ErrorDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -21,4 +25,24 @@ public class ErrorHandler {
                 .timestamp(Instant.now())
                 .build();
     }
+
+    @ExceptionHandler(TimelapseBusyException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public ErrorDto handleTimelapseBusy(final TimelapseBusyException e) {
+        return ErrorDto.builder()
+                .message(e.getMessage())
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @ExceptionHandler(BoardNotReadyException.class)
+    public ResponseEntity<ErrorDto> handleBoardNotReady(final BoardNotReadyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(Instant.now())
+                        .build());
+    }
 }
@@ -1,55 +1,168 @@
 package com.pixelhub.backend.controller;
 
-import com.pixelhub.backend.model.dto.BoardResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pixelhub.backend.codec.BoardJsonWriter;
+import com.pixelhub.backend.codec.BoardSnapshotCodec;
+import com.pixelhub.backend.codec.PackedPixelCodec;
+import com.pixelhub.backend.model.board.BoardDelta;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.model.dto.BoardDeltaResponse;
 import com.pixelhub.backend.model.dto.PixelDto;
 import com.pixelhub.backend.model.dto.WebSocketMessage;
+import com.pixelhub.backend.security.TokenPrincipal;
 import com.pixelhub.backend.service.PixelService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
+import java.io.IOException;
 import java.time.Instant;
-import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequiredArgsConstructor
 public class PixelController {
 
+    private static final String SEQUENCE_HEADER = "X-Board-Sequence";
+    private static final MediaType BOARD_MEDIA_TYPE = MediaType.parseMediaType(BoardSnapshotCodec.MEDIA_TYPE);
+
     private final PixelService pixelService;
+    private final ObjectMapper objectMapper;
 
     @MessageMapping("/pixel")
-    public void handlePixelUpdate(@Payload WebSocketMessage<PixelDto> request, Principal principal) {
+    public void handlePixelUpdate(@Payload WebSocketMessage<PixelDto> request, TokenPrincipal principal) {
         if (principal != null && "send".equals(request.getType())) {
-            pixelService.placePixel(request.getContent(), principal.getName());
+            pixelService.placePixel(request.getContent(), principal);
+        }
+    }
+
+    @MessageMapping("/pixel.bin")
+    public void handlePackedPixelUpdate(@Payload byte[] frame, TokenPrincipal principal) {
+        if (principal != null) {
+            for (PixelDto pixel : PackedPixelCodec.decode(frame)) {
+                pixelService.placePixel(pixel, principal);
+            }
         }
     }
 
     @ResponseBody
     @GetMapping("/full-board")
-    public BoardResponse getFullBoard() {
-        List<PixelDto> pixelDtos = pixelService.getFullBoard().stream()
-                .map(p -> new PixelDto(p.getX(), p.getY(), p.getColor()))
-                .toList();
-
-        return new BoardResponse(pixelDtos);
+    public ResponseEntity<StreamingResponseBody> getFullBoard(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(value = "encoding", defaultValue = "deflate") String encoding) {
+        return toResponse(pixelService.getFullBoard(), accept, encoding);
     }
 
     @ResponseBody
     @GetMapping("/board-history")
-    public BoardResponse getBoardAtTime(
+    public ResponseEntity<StreamingResponseBody> getBoardAtTime(
             @RequestParam("timestamp") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) 
-            Instant timestamp) {
-        List<PixelDto> pixelDtos = pixelService.getBoardStateAtTime(timestamp).stream()
-                .map(p -> new PixelDto(p.getX(), p.getY(), p.getColor()))
-                .toList();
-        return new BoardResponse(pixelDtos);
+            Instant timestamp,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(value = "encoding", defaultValue = "deflate") String encoding) {
+        return toResponse(pixelService.getBoardStateAtTime(timestamp), accept, encoding);
+    }
+
+    @ResponseBody
+    @GetMapping("/tiles/{tileX}/{tileY}")
+    public ResponseEntity<StreamingResponseBody> getTile(
+            @PathVariable("tileX") int tileX,
+            @PathVariable("tileY") int tileY,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(value = "encoding", defaultValue = "deflate") String encoding) {
+        int tileSize = pixelService.getTileSize();
+        return pixelService.getTile(tileX, tileY)
+                .map(tile -> toResponse(tile, Math.toIntExact((long) tileX * tileSize),
+                        Math.toIntExact((long) tileY * tileSize), accept, encoding))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ResponseBody
+    @GetMapping("/board-delta")
+    public ResponseEntity<StreamingResponseBody> getBoardDelta(
+            @RequestParam("since") long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(value = "encoding", defaultValue = "deflate") String encoding) {
+        Optional<BoardDelta> delta = pixelService.getChangesSince(since);
+        if (delta.isPresent()) {
+            BoardDeltaResponse response = new BoardDeltaResponse(delta.get().sequence(), false, delta.get().pixels());
+            return ResponseEntity.ok()
+                    .header(SEQUENCE_HEADER, String.valueOf(delta.get().sequence()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(generator -> generator.writeObject(response)));
+        }
+
+        BoardSnapshot snapshot = pixelService.getFullBoard();
+        if (acceptsBinary(accept)) {
+            return toResponse(snapshot, accept, encoding);
+        }
+        return ResponseEntity.ok()
+                .header(SEQUENCE_HEADER, String.valueOf(snapshot.sequence()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json(generator -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("seq", snapshot.sequence());
+                    generator.writeBooleanField("full", true);
+                    BoardJsonWriter.writePixelsField(generator, snapshot, 0, 0);
+                    generator.writeEndObject();
+                }));
+    }
+
+    private ResponseEntity<StreamingResponseBody> toResponse(BoardSnapshot snapshot, String accept, String encoding) {
+        return toResponse(snapshot, 0, 0, accept, encoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> toResponse(BoardSnapshot snapshot, int originX, int originY, String accept, String encoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (snapshot.sequence() > 0) {
+            response.header(SEQUENCE_HEADER, String.valueOf(snapshot.sequence()));
+        }
+
+        if (acceptsBinary(accept)) {
+            byte[] body = BoardSnapshotCodec.encode(snapshot, BoardSnapshotCodec.Encoding.parse(encoding));
+            return response
+                    .contentType(BOARD_MEDIA_TYPE)
+                    .contentLength(body.length)
+                    .body(out -> out.write(body));
+        }
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json(generator -> {
+                    generator.writeStartObject();
+                    BoardJsonWriter.writePixelsField(generator, snapshot, originX, originY);
+                    generator.writeEndObject();
+                }));
+    }
+
+    private StreamingResponseBody json(JsonBody body) {
+        return out -> {
+            JsonGenerator generator = objectMapper.createGenerator(out);
+            body.write(generator);
+            generator.flush();
+        };
+    }
+
+    private boolean acceptsBinary(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(BOARD_MEDIA_TYPE::equalsTypeAndSubtype);
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
     }
 
 }
@@ -0,0 +1,67 @@
+package com.pixelhub.backend.controller;
+
+import com.pixelhub.backend.model.dto.PyramidInfoDto;
+import com.pixelhub.backend.service.BoardCanvas;
+import com.pixelhub.backend.service.TilePyramid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Controller
+@RequiredArgsConstructor
+public class PyramidController {
+
+    private final TilePyramid tilePyramid;
+    private final BoardCanvas boardCanvas;
+
+    @ResponseBody
+    @GetMapping("/pyramid")
+    public PyramidInfoDto getPyramidInfo() {
+        return new PyramidInfoDto(boardCanvas.getWidth(), boardCanvas.getHeight(),
+                tilePyramid.getTileSize(), tilePyramid.getMaxLevel());
+    }
+
+    @ResponseBody
+    @GetMapping("/pyramid/{level}/{tileX}/{tileY}.png")
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable("level") int level,
+            @PathVariable("tileX") int tileX,
+            @PathVariable("tileY") int tileY,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> etag = tilePyramid.etag(level, tileX, tileY);
+        if (etag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return tilePyramid.render(level, tileX, tileY)
+                .map(tile -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .eTag(tile.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .body(tile.png()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals(etag) || candidate.equals("W/" + etag) || candidate.equals("*"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.pixelhub.backend.controller;
+
+import com.pixelhub.backend.codec.TimelapseCodec;
+import com.pixelhub.backend.service.TimelapseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Controller
+@RequiredArgsConstructor
+public class TimelapseController {
+
+    private static final MediaType TIMELAPSE_MEDIA_TYPE = MediaType.parseMediaType(TimelapseCodec.MEDIA_TYPE);
+
+    private final TimelapseService timelapseService;
+
+    @ResponseBody
+    @GetMapping("/timelapse")
+    public ResponseEntity<StreamingResponseBody> getTimelapse(
+            @RequestParam("from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant from,
+            @RequestParam("to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant to,
+            @RequestParam(value = "interval", defaultValue = "PT1M") Duration interval) {
+        TimelapseService.Export timelapse = timelapseService.export(from, to, interval);
+        return ResponseEntity.ok()
+                .contentType(TIMELAPSE_MEDIA_TYPE)
+                .body(timelapse::writeTo);
+    }
+}
@@ -1,27 +1,36 @@
 package com.pixelhub.backend.controller;
 
+import com.pixelhub.backend.exception.TokenParseException;
 import com.pixelhub.backend.model.dto.LeaderBoardResponse;
-import com.pixelhub.backend.model.dto.UserDto;
+import com.pixelhub.backend.model.dto.UserRankDto;
+import com.pixelhub.backend.service.JwtService;
 import com.pixelhub.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final JwtService jwtService;
 
     @ResponseBody
     @GetMapping("/leaderboard")
-    public LeaderBoardResponse getLeaderBoard() {
-        List<UserDto> userDtos = userService.getLeaders().stream()
-                .map(u -> new UserDto(u.getNickname(), u.getPixelCount()))
-                .toList();
-        return new LeaderBoardResponse(userDtos);
+    public LeaderBoardResponse getLeaderBoard(@RequestParam(value = "limit", required = false) Integer limit) {
+        return new LeaderBoardResponse(userService.getLeaders(limit));
+    }
+
+    @ResponseBody
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<UserRankDto> getMyRank(@RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
+        String nickname = jwtService.extractNickname(token).orElseThrow(() -> new TokenParseException(token));
+        return ResponseEntity.of(userService.getRank(nickname));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.pixelhub.backend.exception;
+
+public class BoardNotReadyException extends RuntimeException {
+    public BoardNotReadyException(String message) {
+        super(message);
+    }
+}
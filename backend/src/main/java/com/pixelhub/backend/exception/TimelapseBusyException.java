@@ -0,0 +1,7 @@
+package com.pixelhub.backend.exception;
+
+public class TimelapseBusyException extends RuntimeException {
+    public TimelapseBusyException(String message) {
+        super(message);
+    }
+}
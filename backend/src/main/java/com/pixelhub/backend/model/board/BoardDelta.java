@@ -0,0 +1,8 @@
+package com.pixelhub.backend.model.board;
+
+import com.pixelhub.backend.model.dto.PixelDto;
+
+import java.util.List;
+
+public record BoardDelta(long sequence, List<PixelDto> pixels) {
+}
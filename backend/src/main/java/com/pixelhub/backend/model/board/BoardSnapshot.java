@@ -0,0 +1,26 @@
+package com.pixelhub.backend.model.board;
+
+import java.util.Arrays;
+
+public record BoardSnapshot(int width, int height, byte[] cells, long sequence) {
+
+    public static final byte EMPTY = -1;
+
+    public static BoardSnapshot empty(int width, int height) {
+        byte[] cells = new byte[width * height];
+        Arrays.fill(cells, EMPTY);
+        return new BoardSnapshot(width, height, cells, 0);
+    }
+
+    public boolean paint(int x, int y, int color) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        cells[y * width + x] = (byte) color;
+        return true;
+    }
+
+    public boolean isPainted(int index) {
+        return cells[index] != EMPTY;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pixelhub.backend.model.board;
+
+/**
+ * Server copy of the web client's {@code PALETTE_HEX}. Indices without a colour and unpainted
+ * cells render as the white background, as they do in the browser.
+ */
+public final class Palette {
+
+    public static final int BACKGROUND = 0xffffff;
+
+    private static final int[] COLORS = {
+            0x000000, 0x3f3f46, 0x71717a, 0xd4d4d8, 0xffffff, 0x991b1b, 0xdc2626, 0xf97316,
+            0xfacc15, 0xa3e635, 0x16a34a, 0x22d3ee, 0x0284c7, 0x1d4ed8, 0x6366f1, 0x8b5cf6,
+            0xa855f7, 0xec4899, 0xbe123c, 0xfb7185, 0xfef08a, 0xfde68a, 0xbef264, 0x4ade80,
+            0x34d399, 0x2dd4bf, 0x60a5fa, 0x93c5fd, 0xc7d2fe, 0xddd6fe, 0xfde68a, 0xfcd34d
+    };
+
+    private Palette() {
+    }
+
+    public static int rgb(byte cell) {
+        int index = Byte.toUnsignedInt(cell);
+        return index < COLORS.length ? COLORS[index] : BACKGROUND;
+    }
+}
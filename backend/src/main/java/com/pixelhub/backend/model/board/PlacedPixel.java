@@ -0,0 +1,6 @@
+package com.pixelhub.backend.model.board;
+
+import java.time.Instant;
+
+public record PlacedPixel(int x, int y, int color, int userId, Instant placedAt) {
+}
@@ -0,0 +1,6 @@
+package com.pixelhub.backend.model.board;
+
+import java.time.Instant;
+
+public record RelayedPixel(int x, int y, int color, String nickname, Instant placedAt) {
+}
@@ -7,6 +7,8 @@ import java.util.List;
 
 @Data
 @AllArgsConstructor
-public class BoardResponse {
+public class BoardDeltaResponse {
+    private Long seq;
+    private Boolean full;
     private List<PixelDto> pixels;
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.pixelhub.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PixelBatchDto {
+    private Long seq;
+    private List<PixelDto> pixels;
+}
@@ -0,0 +1,13 @@
+package com.pixelhub.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PyramidInfoDto {
+    private Integer width;
+    private Integer height;
+    private Integer tileSize;
+    private Integer maxLevel;
+}
@@ -0,0 +1,14 @@
+package com.pixelhub.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRankDto {
+    private String nickname;
+    private Long pixelCount;
+    private Integer rank;
+}
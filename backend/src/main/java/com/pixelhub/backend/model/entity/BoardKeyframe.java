@@ -14,22 +14,16 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "pixels")
-public class Pixel {
+@Table(name = "board_keyframes")
+public class BoardKeyframe {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
     private Integer id;
 
-    @Column(name = "x", nullable = false)
-    private Integer x;
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
 
-    @Column(name = "y", nullable = false)
-    private Integer y;
-
-    @Column(name = "color", nullable = false)
-    private Integer color;
-
-    @Column(name = "placed_at", nullable = false)
-    private Instant placedAt;
+    @Column(name = "board", nullable = false)
+    private byte[] board;
 }
@@ -0,0 +1,17 @@
+package com.pixelhub.backend.repository;
+
+import com.pixelhub.backend.model.entity.BoardKeyframe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface BoardKeyframeRepository extends JpaRepository<BoardKeyframe, Integer> {
+    Optional<BoardKeyframe> findFirstByOrderByTakenAtDesc();
+
+    Optional<BoardKeyframe> findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(Instant timestamp);
+
+    boolean existsByTakenAt(Instant takenAt);
+}
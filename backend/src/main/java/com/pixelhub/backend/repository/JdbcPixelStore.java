@@ -0,0 +1,208 @@
+package com.pixelhub.backend.repository;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps placements in the {@code pixels} table and the latest color of every cell in
+ * {@code board_cells}. History is read row by row through a forward-only cursor instead of
+ * materializing entities. The PostgreSQL driver only honours the fetch size inside a
+ * transaction, hence the read-only transactions around each scan. {@code pixels} is partitioned
+ * by day on {@code placed_at}: scans between two instants only touch the partitions in between,
+ * the board as of an instant reads every partition up to it, and {@link #replayAfter} probes
+ * every partition by id.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.pixel-store.type", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcPixelStore implements PixelStore {
+
+    // Shared by every node appending to the same database, see replayAfter.
+    private static final long APPEND_LOCK_KEY = 0x7069_7865_6c61L;
+    private static final String INSERT_PIXEL =
+            "INSERT INTO pixels (x, y, color, placed_at) VALUES (?, ?, ?, ?)";
+    // Last writer wins, ties broken by color like BoardCanvas.set, whatever order nodes commit in.
+    private static final String UPSERT_CELL =
+            "INSERT INTO board_cells (x, y, color, placed_at) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (x, y) DO UPDATE SET color = EXCLUDED.color, placed_at = EXCLUDED.placed_at "
+            + "WHERE (board_cells.placed_at, board_cells.color) <= (EXCLUDED.placed_at, EXCLUDED.color)";
+
+    private static final String CURRENT = """
+        SELECT x, y, color
+        FROM board_cells
+        """;
+    private static final String LATEST_AT = """
+        SELECT DISTINCT ON (x, y) x, y, color
+        FROM pixels
+        WHERE placed_at <= ?
+        ORDER BY x, y, placed_at DESC
+        """;
+    private static final String PLACED_BETWEEN = """
+        SELECT x, y, color
+        FROM pixels
+        WHERE placed_at > ? AND placed_at <= ?
+        ORDER BY placed_at, id
+        """;
+
+    private static final String AFTER_ID = """
+        SELECT id, x, y, color
+        FROM pixels
+        WHERE id > ?
+        ORDER BY id
+        """;
+
+    // Last id drawn; setval(n, false) leaves n to be drawn next.
+    private static final String LAST_ID = """
+        SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END
+        FROM pixels_id_seq
+        """;
+
+    private static final String OLDEST_REPLAY_POSITION = """
+        SELECT COALESCE((SELECT MIN(id) - 1 FROM pixels), (%s))
+        """.formatted(LAST_ID);
+
+    private static final String PLACEMENTS_BETWEEN = """
+        SELECT x, y, color, placed_at
+        FROM pixels
+        WHERE placed_at > ? AND placed_at <= ?
+        ORDER BY placed_at, id
+        """;
+
+    private static final ParameterizedPreparedStatementSetter<PlacedPixel> PIXEL_SETTER = (ps, pixel) -> {
+        ps.setInt(1, pixel.x());
+        ps.setInt(2, pixel.y());
+        ps.setInt(3, pixel.color());
+        ps.setTimestamp(4, Timestamp.from(pixel.placedAt()));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcPixelStore(DataSource dataSource, @Value("${app.history.fetch-size:10000}") int fetchSize) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    @Transactional
+    public void append(List<PlacedPixel> batch) {
+        // One row per cell: a multi-row upsert cannot touch the same key twice, and only the latest write matters.
+        Map<Long, PlacedPixel> cells = new LinkedHashMap<>();
+        for (PlacedPixel pixel : batch) {
+            cells.merge(((long) pixel.x() << 32) | pixel.y(), pixel, JdbcPixelStore::later);
+        }
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, APPEND_LOCK_KEY);
+        jdbcTemplate.batchUpdate(INSERT_PIXEL, batch, batch.size(), PIXEL_SETTER);
+        jdbcTemplate.batchUpdate(UPSERT_CELL, new ArrayList<>(cells.values()), cells.size(), PIXEL_SETTER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachCurrent(CellConsumer consumer) {
+        CountingHandler handler = new CountingHandler(consumer);
+        jdbcTemplate.query(CURRENT, handler);
+        return handler.count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachLatestAt(Instant timestamp, CellConsumer consumer) {
+        CountingHandler handler = new CountingHandler(consumer);
+        jdbcTemplate.query(LATEST_AT, handler, Timestamp.from(timestamp));
+        return handler.count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachPlacedBetween(Instant from, Instant to, CellConsumer consumer) {
+        CountingHandler handler = new CountingHandler(consumer);
+        jdbcTemplate.query(PLACED_BETWEEN, handler, Timestamp.from(from), Timestamp.from(to));
+        return handler.count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachPlacementBetween(Instant from, Instant to, PlacementConsumer consumer) {
+        jdbcTemplate.query(PLACEMENTS_BETWEEN, (RowCallbackHandler) rs -> consumer.accept(
+                rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4).toInstant()
+        ), Timestamp.from(from), Timestamp.from(to));
+    }
+
+    /**
+     * Positions are {@code pixels.id}. Every append takes a transaction-scoped advisory lock before
+     * drawing ids, so across all nodes ids are drawn and committed one transaction at a time and
+     * become visible in increasing order; a watermark of the highest id seen never skips a row.
+     * Ids are not the partition key; each older partition costs a single primary key probe that
+     * finds nothing.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long replayAfter(long position, CellConsumer consumer) {
+        long[] last = {position};
+        jdbcTemplate.query(AFTER_ID, (RowCallbackHandler) rs -> {
+            last[0] = rs.getLong(1);
+            consumer.accept(rs.getInt(2), rs.getInt(3), rs.getInt(4));
+        }, position);
+        return last[0];
+    }
+
+    /**
+     * Holds the append lock while it reads, so no append is in flight: every id drawn so far is
+     * committed or rolled back, and {@code board_cells} includes exactly the placements up to the
+     * last one. Appends wait for the scan, which only runs when there is no usable checkpoint.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachCurrentAtPosition(CellConsumer consumer) {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, APPEND_LOCK_KEY);
+        Long position = jdbcTemplate.queryForObject(LAST_ID, Long.class);
+        jdbcTemplate.query(CURRENT, new CountingHandler(consumer));
+        return position == null ? 0 : position;
+    }
+
+    /**
+     * One less than the oldest id still in {@code pixels}; partitions dropped by retention took
+     * the ids before it. With every partition dropped, the last id drawn.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long oldestReplayPosition() {
+        Long position = jdbcTemplate.queryForObject(OLDEST_REPLAY_POSITION, Long.class);
+        return position == null ? 0 : Math.max(0, position);
+    }
+
+    private static PlacedPixel later(PlacedPixel current, PlacedPixel candidate) {
+        int order = candidate.placedAt().compareTo(current.placedAt());
+        return order > 0 || order == 0 && candidate.color() >= current.color() ? candidate : current;
+    }
+
+    private static final class CountingHandler implements RowCallbackHandler {
+
+        private final CellConsumer consumer;
+        private long count;
+
+        private CountingHandler(CellConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            consumer.accept(rs.getInt(1), rs.getInt(2), rs.getInt(3));
+            count++;
+        }
+    }
+}
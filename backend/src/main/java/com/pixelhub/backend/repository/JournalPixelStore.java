@@ -0,0 +1,420 @@
+package com.pixelhub.backend.repository;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends placements as fixed-size records to memory-mapped segment files and serves history by
+ * scanning them. A record is 20 bytes, little-endian: placement time in epoch microseconds (i64),
+ * user id (i32), x (u16), y (u16), color (u8) and the low 24 bits of the CRC32C of the first 17
+ * bytes. Segments are zero-filled on disk before they are mapped, so a full disk fails the roll
+ * with an {@link IOException} rather than a fault on a later write. The first record with a zero
+ * timestamp or a bad checksum marks the end of the log.
+ * <p>
+ * Writes land in the page cache and are forced to disk every
+ * {@code app.pixel-store.journal.sync-interval-ms}, so a host crash can lose that window, and may
+ * write pages out of order. On open the last segment is therefore checked record by record and
+ * everything after its first invalid record is zeroed; earlier segments were forced when they
+ * were rolled. Records are appended by the single write-behind thread in placement order, which
+ * lets scans skip whole segments by their first and last timestamps.
+ * <p>
+ * The journal is local to a node and only receives the placements that node accepted, so it
+ * refuses to start unless {@code app.relay.type} is {@code loopback}: behind a cross-node relay a
+ * restarted node would lose every placement made on the others.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.pixel-store.type", havingValue = "journal")
+public class JournalPixelStore implements PixelStore, AutoCloseable {
+
+    static final int RECORD_BYTES = 20;
+    private static final int CHECKSUM_OFFSET = 17;
+    private static final String SEGMENT_PREFIX = "pixels-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int MAX_COORDINATE = 0xFFFF;
+    private static final int SCAN_BUFFER_RECORDS = 4096;
+
+    private final Path directory;
+    private final int segmentRecords;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ORDER);
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private boolean dirty;
+
+    @Value("${app.relay.type:postgres}")
+    private String relayType;
+
+    public JournalPixelStore(@Value("${app.pixel-store.journal.directory:data/journal}") Path directory,
+                             @Value("${app.pixel-store.journal.segment-bytes:67108864}") int segmentBytes,
+                             @Value("${app.canvas-width:2000}") int canvasWidth,
+                             @Value("${app.canvas-height:2000}") int canvasHeight) {
+        if (canvasWidth > MAX_COORDINATE + 1 || canvasHeight > MAX_COORDINATE + 1) {
+            throw new IllegalArgumentException("Pixel journal only stores coordinates up to " + MAX_COORDINATE);
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentBytes / RECORD_BYTES;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open pixel journal in " + directory, e);
+        }
+    }
+
+    @PostConstruct
+    private void requireSingleNode() {
+        if (!"loopback".equals(relayType)) {
+            throw new IllegalStateException("The pixel journal only keeps this node's placements and cannot be used with the "
+                    + relayType + " relay, set app.relay.type=loopback or use the jdbc pixel store");
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            segments.add(Segment.recover(paths.get(i), i == paths.size() - 1));
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            map(segments.get(segments.size() - 1));
+        }
+        log.info("Opened pixel journal in {} with {} segments and {} records",
+                directory, segments.size(), segments.stream().mapToLong(segment -> segment.records).sum());
+    }
+
+    @Override
+    public synchronized void append(List<PlacedPixel> batch) {
+        try {
+            for (PlacedPixel pixel : batch) {
+                Segment active = segments.get(segments.size() - 1);
+                // A segment recovered after segment-bytes was lowered can already be past the new size.
+                if (active.records >= active.capacity) {
+                    roll();
+                    active = segments.get(segments.size() - 1);
+                }
+
+                long micros = toMicros(pixel.placedAt());
+                encode(record, checksum, micros, pixel.userId(), pixel.x(), pixel.y(), pixel.color());
+                activeBuffer.put(active.records * RECORD_BYTES, record, 0, RECORD_BYTES);
+                active.append(micros);
+            }
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll pixel journal segment", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pixel-store.journal.sync-interval-ms:1000}")
+    public synchronized void sync() {
+        if (dirty) {
+            activeBuffer.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        sync();
+        activeChannel.close();
+    }
+
+    @Override
+    public long forEachCurrent(CellConsumer consumer) {
+        return scan(0, Long.MIN_VALUE, Long.MAX_VALUE, (position, x, y, color, micros) -> consumer.accept(x, y, color));
+    }
+
+    @Override
+    public long forEachLatestAt(Instant timestamp, CellConsumer consumer) {
+        return scan(0, Long.MIN_VALUE, toMicros(timestamp),
+                (position, x, y, color, micros) -> consumer.accept(x, y, color));
+    }
+
+    @Override
+    public long forEachPlacedBetween(Instant from, Instant to, CellConsumer consumer) {
+        return scan(0, toMicros(from), toMicros(to), (position, x, y, color, micros) -> consumer.accept(x, y, color));
+    }
+
+    @Override
+    public void forEachPlacementBetween(Instant from, Instant to, PlacementConsumer consumer) {
+        scan(0, toMicros(from), toMicros(to),
+                (position, x, y, color, micros) -> consumer.accept(x, y, color, fromMicros(micros)));
+    }
+
+    /**
+     * Positions count records from the start of the journal, the first record is at position 1.
+     */
+    @Override
+    public long replayAfter(long position, CellConsumer consumer) {
+        long[] last = {position};
+        scan(position, Long.MIN_VALUE, Long.MAX_VALUE, (recordPosition, x, y, color, micros) -> {
+            consumer.accept(x, y, color);
+            last[0] = recordPosition;
+        });
+        return last[0];
+    }
+
+    @Override
+    public long forEachCurrentAtPosition(CellConsumer consumer) {
+        return replayAfter(0, consumer);
+    }
+
+    /**
+     * The journal never drops segments.
+     */
+    @Override
+    public long oldestReplayPosition() {
+        return 0;
+    }
+
+    /**
+     * Visits records after {@code afterPosition} placed after {@code fromMicros} up to and
+     * including {@code toMicros}.
+     */
+    private long scan(long afterPosition, long fromMicros, long toMicros, RecordConsumer consumer) {
+        List<SegmentView> views;
+        synchronized (this) {
+            views = segments.stream().map(Segment::view).toList();
+        }
+
+        long count = 0;
+        long base = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_RECORDS * RECORD_BYTES).order(ORDER);
+        for (SegmentView view : views) {
+            long segmentBase = base;
+            base += view.records();
+            if (view.records() == 0 || base <= afterPosition
+                    || view.lastMicros() <= fromMicros || view.firstMicros() > toMicros) {
+                continue;
+            }
+            long recordPosition = segmentBase;
+            try (FileChannel channel = FileChannel.open(view.path(), StandardOpenOption.READ)) {
+                long remaining = (long) view.records() * RECORD_BYTES;
+                long position = 0;
+                while (remaining > 0) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, position + buffer.position()) < 0) {
+                            throw new IOException("Segment " + view.path() + " is shorter than its records");
+                        }
+                    }
+                    buffer.flip();
+                    position += buffer.limit();
+                    remaining -= buffer.limit();
+                    while (buffer.hasRemaining()) {
+                        long micros = buffer.getLong();
+                        buffer.getInt();
+                        int x = Short.toUnsignedInt(buffer.getShort());
+                        int y = Short.toUnsignedInt(buffer.getShort());
+                        int color = Byte.toUnsignedInt(buffer.get());
+                        buffer.position(buffer.position() + 3);
+                        recordPosition++;
+                        if (recordPosition > afterPosition && micros > fromMicros && micros <= toMicros) {
+                            consumer.accept(recordPosition, x, y, color, micros);
+                            count++;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read pixel journal segment " + view.path(), e);
+            }
+        }
+        return count;
+    }
+
+    private void roll() throws IOException {
+        if (activeChannel != null) {
+            activeBuffer.force();
+            activeChannel.close();
+        }
+        Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        Segment segment = new Segment(path, segmentRecords);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            zeroFill(channel, 0, (long) segmentRecords * RECORD_BYTES);
+        }
+        segments.add(segment);
+        map(segment);
+    }
+
+    private void map(Segment segment) throws IOException {
+        activeChannel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segment.capacity * RECORD_BYTES);
+        activeBuffer.order(ORDER);
+    }
+
+    private static void encode(ByteBuffer record, CRC32C checksum, long micros, int userId, int x, int y, int color) {
+        record.putLong(0, micros);
+        record.putInt(8, userId);
+        record.putShort(12, (short) x);
+        record.putShort(14, (short) y);
+        record.put(16, (byte) color);
+        checksum.reset();
+        checksum.update(record.array(), 0, CHECKSUM_OFFSET);
+        int crc = (int) checksum.getValue();
+        record.put(CHECKSUM_OFFSET, (byte) crc);
+        record.put(CHECKSUM_OFFSET + 1, (byte) (crc >>> 8));
+        record.put(CHECKSUM_OFFSET + 2, (byte) (crc >>> 16));
+    }
+
+    private static boolean isValid(ByteBuffer records, int offset, CRC32C checksum) {
+        if (records.getLong(offset) == 0) {
+            return false;
+        }
+        checksum.reset();
+        checksum.update(records.slice(offset, CHECKSUM_OFFSET));
+        int crc = (int) checksum.getValue();
+        return records.get(offset + CHECKSUM_OFFSET) == (byte) crc
+               && records.get(offset + CHECKSUM_OFFSET + 1) == (byte) (crc >>> 8)
+               && records.get(offset + CHECKSUM_OFFSET + 2) == (byte) (crc >>> 16);
+    }
+
+    private static void zeroFill(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate(1 << 20);
+        long position = from;
+        while (position < to) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), to - position));
+            position += channel.write(zeros, position);
+        }
+        channel.force(true);
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plusNanos(Math.multiplyExact(micros, 1_000L));
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        void accept(long position, int x, int y, int color, long micros);
+    }
+
+    private record SegmentView(Path path, int records, long firstMicros, long lastMicros) {
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final int capacity;
+        private int records;
+        private long firstMicros;
+        private long lastMicros;
+
+        private Segment(Path path, int capacity) {
+            this.path = path;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Finds the end of an existing segment. Rolled segments were forced to disk and end at
+         * the first zero timestamp, found by binary search. The last one may hold torn or
+         * out-of-order pages, so it is read record by record up to the first invalid one and
+         * zeroed from there.
+         */
+        private static Segment recover(Path path, boolean last) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(path, (int) (channel.size() / RECORD_BYTES));
+                segment.records = last ? validRecords(channel, segment.capacity) : firstEmptyRecord(channel, segment.capacity);
+                if (segment.records > 0) {
+                    segment.firstMicros = timestampAt(channel, 0);
+                    segment.lastMicros = timestampAt(channel, segment.records - 1);
+                }
+                if (last) {
+                    zeroFill(channel, (long) segment.records * RECORD_BYTES, channel.size());
+                }
+                return segment;
+            }
+        }
+
+        private static int firstEmptyRecord(FileChannel channel, int capacity) throws IOException {
+            int low = 0;
+            int high = capacity;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestampAt(channel, middle) != 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static int validRecords(FileChannel channel, int capacity) throws IOException {
+            CRC32C checksum = new CRC32C();
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_RECORDS * RECORD_BYTES).order(ORDER);
+            int records = 0;
+            while (records < capacity) {
+                int batch = Math.min(SCAN_BUFFER_RECORDS, capacity - records);
+                buffer.clear().limit(batch * RECORD_BYTES);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, (long) records * RECORD_BYTES + buffer.position()) < 0) {
+                        return records;
+                    }
+                }
+                for (int i = 0; i < batch; i++) {
+                    if (!isValid(buffer, i * RECORD_BYTES, checksum)) {
+                        return records;
+                    }
+                    records++;
+                }
+            }
+            return records;
+        }
+
+        private static long timestampAt(FileChannel channel, int record) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ORDER);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, (long) record * RECORD_BYTES + buffer.position()) < 0) {
+                    return 0;
+                }
+            }
+            return buffer.getLong(0);
+        }
+
+        private void append(long micros) {
+            firstMicros = records == 0 ? micros : Math.min(firstMicros, micros);
+            lastMicros = Math.max(lastMicros, micros);
+            records++;
+        }
+
+        private SegmentView view() {
+            return new SegmentView(path, records, firstMicros, lastMicros);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.pixelhub.backend.repository;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only log of placements. {@code app.pixel-store.type} selects the implementation:
+ * {@link JdbcPixelStore} keeps it in the {@code pixels} and {@code board_cells} tables,
+ * {@link JournalPixelStore} in memory-mapped segment files.
+ * <p>
+ * Scans report cells in placement order and may report the same cell more than once, the last
+ * report wins. The returned counts are the number of reports.
+ */
+public interface PixelStore {
+
+    void append(List<PlacedPixel> batch);
+
+    long forEachCurrent(CellConsumer consumer);
+
+    long forEachLatestAt(Instant timestamp, CellConsumer consumer);
+
+    long forEachPlacedBetween(Instant from, Instant to, CellConsumer consumer);
+
+    void forEachPlacementBetween(Instant from, Instant to, PlacementConsumer consumer);
+
+    /**
+     * Replays placements stored after {@code position} in the order they were stored and returns
+     * the position of the last one, or {@code position} if there are none. Positions only grow
+     * and {@code 0} lies before the first placement.
+     */
+    long replayAfter(long position, CellConsumer consumer);
+
+    /**
+     * Reports the latest color of every cell like {@link #forEachCurrent}, but consistently with
+     * a position, and returns that position: replaying after it yields exactly the placements the
+     * reported cells do not include yet.
+     */
+    long forEachCurrentAtPosition(CellConsumer consumer);
+
+    /**
+     * Returns the oldest position that {@link #replayAfter} can start from without missing
+     * placements the store no longer keeps; {@code 0} while it keeps all of them.
+     */
+    long oldestReplayPosition();
+
+    @FunctionalInterface
+    interface PlacementConsumer {
+        void accept(int x, int y, int color, Instant placedAt);
+    }
+
+    @FunctionalInterface
+    interface CellConsumer {
+        void accept(int x, int y, int color);
+    }
+}
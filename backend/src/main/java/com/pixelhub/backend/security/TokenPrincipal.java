@@ -2,7 +2,7 @@ package com.pixelhub.backend.security;
 
 import java.security.Principal;
 
-public record TokenPrincipal(String name) implements Principal {
+public record TokenPrincipal(String name, int userId) implements Principal {
     @Override
     public String getName() {
         return name();
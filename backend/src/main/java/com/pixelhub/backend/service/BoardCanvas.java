@@ -0,0 +1,173 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.exception.BoardNotReadyException;
+import com.pixelhub.backend.model.board.BoardDelta;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.repository.PixelStore;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardCanvas {
+
+    private final PixelStore pixelStore;
+    private final BoardCheckpointService boardCheckpointService;
+
+    @Getter
+    @Value("${app.canvas-width:2000}")
+    private int width;
+    @Getter
+    @Value("${app.canvas-height:2000}")
+    private int height;
+    @Getter
+    @Value("${app.board.tile-size:250}")
+    private int tileSize;
+    @Value("${app.board.delta-capacity:100000}")
+    private int deltaCapacity;
+
+    private BoardSnapshot board;
+    // Epoch microseconds of the placement each cell shows; zero for cells loaded from the store.
+    private long[] placedAt;
+    private BoardChangeLog changeLog;
+    // Cells set by remote placements while the board loads, they win over what the load returns.
+    private BitSet setWhileLoading;
+    private volatile boolean loaded;
+    private volatile Throwable loadFailure;
+
+    @PostConstruct
+    private void start() {
+        board = BoardSnapshot.empty(width, height);
+        placedAt = new long[width * height];
+        setWhileLoading = new BitSet(width * height);
+        // Sequences are seeded from the wall clock so that a client holding a sequence
+        // from before a restart falls behind the new log and gets a full snapshot.
+        changeLog = new BoardChangeLog(width, deltaCapacity, System.currentTimeMillis() << 10);
+
+        // The application starts serving while the board loads; readiness stays down until then.
+        Thread loader = new Thread(this::load, "board-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        try {
+            BoardSnapshot loading;
+            long[] replayed = {0};
+            Optional<BoardCheckpointService.Checkpoint> checkpoint = boardCheckpointService.newest();
+            if (checkpoint.isPresent()) {
+                loading = checkpoint.get().board();
+                pixelStore.replayAfter(checkpoint.get().position(), (x, y, color) -> {
+                    loading.paint(x, y, color);
+                    replayed[0]++;
+                });
+                log.info("Loaded board checkpoint at position {} and replayed {} placements after it",
+                        checkpoint.get().position(), replayed[0]);
+            } else {
+                loading = BoardSnapshot.empty(width, height);
+                replayed[0] = pixelStore.forEachCurrent(loading::paint);
+                log.info("No board checkpoint, loaded {} cell updates from the pixel store", replayed[0]);
+            }
+
+            synchronized (this) {
+                byte[] live = board.cells();
+                for (int cell = setWhileLoading.nextSetBit(0); cell >= 0; cell = setWhileLoading.nextSetBit(cell + 1)) {
+                    loading.cells()[cell] = live[cell];
+                }
+                log.info("Kept {} cells placed on other nodes while loading", setWhileLoading.cardinality());
+                setWhileLoading = null;
+                board = loading;
+                loaded = true;
+            }
+            log.info("Loaded {}x{} board in {} ms", width, height, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            loadFailure = e;
+            log.error("Failed to load the board", e);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Optional<Throwable> getLoadFailure() {
+        return Optional.ofNullable(loadFailure);
+    }
+
+    /**
+     * Applies a placement unless the cell already shows a later one. Placements are ordered by
+     * time and then by color, like the {@code board_cells} upsert, so nodes that receive the same
+     * placements in a different order end up with the same cell.
+     */
+    public synchronized boolean set(int x, int y, int color, long placedAtMicros) {
+        int cell = y * width + x;
+        if (placedAtMicros < placedAt[cell] || placedAtMicros == placedAt[cell] && color < board.cells()[cell]) {
+            return false;
+        }
+        placedAt[cell] = placedAtMicros;
+        if (setWhileLoading != null) {
+            setWhileLoading.set(cell);
+        }
+        board.paint(x, y, color);
+        changeLog.append(cell, (byte) color);
+        return true;
+    }
+
+    public synchronized BoardSnapshot snapshot() {
+        requireLoaded();
+        return new BoardSnapshot(width, height, board.cells().clone(), changeLog.latest());
+    }
+
+    public Optional<BoardSnapshot> tile(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || (long) tileX * tileSize >= width || (long) tileY * tileSize >= height) {
+            return Optional.empty();
+        }
+        return Optional.of(region(tileX * tileSize, tileY * tileSize, tileSize, tileSize));
+    }
+
+    /**
+     * Copies the cells of a rectangle clipped to the board.
+     */
+    public synchronized BoardSnapshot region(int originX, int originY, int regionWidth, int regionHeight) {
+        requireLoaded();
+        int clippedWidth = Math.min(regionWidth, width - originX);
+        int clippedHeight = Math.min(regionHeight, height - originY);
+        byte[] cells = new byte[clippedWidth * clippedHeight];
+        for (int row = 0; row < clippedHeight; row++) {
+            System.arraycopy(board.cells(), (originY + row) * width + originX, cells, row * clippedWidth, clippedWidth);
+        }
+        return new BoardSnapshot(clippedWidth, clippedHeight, cells, changeLog.latest());
+    }
+
+    public synchronized long latestSequence() {
+        return changeLog.latest();
+    }
+
+    public Optional<BoardDelta> changesSince(long sequence) {
+        Optional<BoardChangeLog.Changes> changes;
+        synchronized (this) {
+            changes = changeLog.since(sequence);
+        }
+        // Up to delta-capacity DTOs; built after releasing the monitor the placement writer needs.
+        return changes.map(BoardChangeLog.Changes::toDelta);
+    }
+
+    public BoardSnapshot emptySnapshot() {
+        return BoardSnapshot.empty(width, height);
+    }
+
+    private void requireLoaded() {
+        if (!loaded) {
+            throw new BoardNotReadyException("The board is still loading");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.BoardDelta;
+import com.pixelhub.backend.model.dto.PixelDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+final class BoardChangeLog {
+
+    private final int width;
+    private final int[] cells;
+    private final byte[] colors;
+
+    private long oldest;
+    private long latest;
+
+    BoardChangeLog(int width, int capacity, long startSequence) {
+        this.width = width;
+        this.cells = new int[capacity];
+        this.colors = new byte[capacity];
+        this.oldest = startSequence + 1;
+        this.latest = startSequence;
+    }
+
+    long latest() {
+        return latest;
+    }
+
+    long append(int cell, byte color) {
+        long sequence = ++latest;
+        int slot = (int) (sequence % cells.length);
+        cells[slot] = cell;
+        colors[slot] = color;
+        if (latest - oldest >= cells.length) {
+            oldest = latest - cells.length + 1;
+        }
+        return sequence;
+    }
+
+    /**
+     * Copies the changes after {@code sequence}, or returns empty when they are no longer in the
+     * log. Only copies the two ring slices, so callers can hold their lock for it and turn the
+     * result into a {@link BoardDelta} after releasing it.
+     */
+    Optional<Changes> since(long sequence) {
+        if (sequence < oldest - 1 || sequence > latest) {
+            return Optional.empty();
+        }
+
+        int count = (int) (latest - sequence);
+        int[] changedCells = new int[count];
+        byte[] changedColors = new byte[count];
+        int start = (int) ((sequence + 1) % cells.length);
+        int head = Math.min(count, cells.length - start);
+        System.arraycopy(cells, start, changedCells, 0, head);
+        System.arraycopy(colors, start, changedColors, 0, head);
+        System.arraycopy(cells, 0, changedCells, head, count - head);
+        System.arraycopy(colors, 0, changedColors, head, count - head);
+        return Optional.of(new Changes(width, latest, changedCells, changedColors));
+    }
+
+    record Changes(int width, long sequence, int[] cells, byte[] colors) {
+
+        BoardDelta toDelta() {
+            Map<Integer, PixelDto> changes = new LinkedHashMap<>();
+            for (int i = 0; i < cells.length; i++) {
+                int cell = cells[i];
+                changes.put(cell, new PixelDto(cell % width, cell / width, (int) colors[i]));
+            }
+            return new BoardDelta(sequence, new ArrayList<>(changes.values()));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.codec.BoardSnapshotCodec;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.repository.PixelStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes the board as of a pixel store position to checkpoint files, so that a restart only
+ * replays the placements stored after it. A checkpoint is built from the previous one plus the
+ * placements stored since, never from the in-memory board, which runs ahead of the store while
+ * the write-behind queue drains. Without a usable previous checkpoint, the first one is built
+ * from the store's current cells. A checkpoint older than the oldest placement the store still
+ * keeps would lose the placements dropped by retention and is ignored. File format:
+ * {@code PXHC}, version, store position (i64), then the board in the {@code deflate} binary
+ * format. Files are named after the store type, since positions of one store mean nothing to
+ * another.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardCheckpointService {
+
+    private static final byte[] MAGIC = {'P', 'X', 'H', 'C'};
+    private static final byte VERSION = 1;
+    private static final String SUFFIX = ".ckpt";
+
+    private final PixelStore pixelStore;
+
+    @Value("${app.canvas-width:2000}")
+    private int width;
+    @Value("${app.canvas-height:2000}")
+    private int height;
+    @Value("${app.pixel-store.type:jdbc}")
+    private String storeType;
+    @Value("${app.board.checkpoint.directory:data/checkpoints}")
+    private Path directory;
+    @Value("${app.board.checkpoint.retain:3}")
+    private int retain;
+
+    public Optional<Checkpoint> newest() {
+        List<Path> files = checkpointFiles();
+        long oldestPosition = files.isEmpty() ? 0 : pixelStore.oldestReplayPosition();
+        for (Path path : files.reversed()) {
+            try {
+                Checkpoint checkpoint = read(path);
+                if (checkpoint.board().width() != width || checkpoint.board().height() != height) {
+                    log.warn("Ignoring checkpoint {} for a {}x{} board", path,
+                            checkpoint.board().width(), checkpoint.board().height());
+                } else if (checkpoint.position() < oldestPosition) {
+                    // Older checkpoints are older still.
+                    log.warn("Ignoring checkpoint {} at position {}, placements up to {} are no longer stored",
+                            path, checkpoint.position(), oldestPosition);
+                    return Optional.empty();
+                } else {
+                    return Optional.of(checkpoint);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable checkpoint {}", path, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(initialDelayString = "${app.board.checkpoint.interval-ms:60000}",
+               fixedDelayString = "${app.board.checkpoint.interval-ms:60000}")
+    public void createCheckpoint() {
+        Optional<Checkpoint> previous = newest();
+        BoardSnapshot board;
+        long position;
+        if (previous.isPresent()) {
+            board = previous.get().board();
+            position = pixelStore.replayAfter(previous.get().position(), board::paint);
+            if (position == previous.get().position()) {
+                return;
+            }
+        } else {
+            board = BoardSnapshot.empty(width, height);
+            position = pixelStore.forEachCurrentAtPosition(board::paint);
+        }
+
+        try {
+            Path path = write(new Checkpoint(position, board));
+            log.info("Stored board checkpoint {} at position {}", path.getFileName(), position);
+            prune();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write board checkpoint", e);
+        }
+    }
+
+    private Path write(Checkpoint checkpoint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(checkpoint.position());
+            out.write(BoardSnapshotCodec.encode(checkpoint.board(), BoardSnapshotCodec.Encoding.DEFLATE));
+        }
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("board-%s-%020d%s", storeType, checkpoint.position(), SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        // Readers only ever see complete files.
+        return Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Checkpoint read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC) || in.readByte() != VERSION) {
+                throw new IOException("Not a board checkpoint");
+            }
+            long position = in.readLong();
+            return new Checkpoint(position, BoardSnapshotCodec.decode(in.readAllBytes()));
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = checkpointFiles();
+        for (Path path : files.subList(0, Math.max(0, files.size() - retain))) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Returns this store's checkpoints, oldest first. Positions are zero-padded, so names sort by position.
+     */
+    private List<Path> checkpointFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String prefix = "board-" + storeType + "-";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list board checkpoints in " + directory, e);
+        }
+    }
+
+    public record Checkpoint(long position, BoardSnapshot board) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.codec.BoardSnapshotCodec;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.model.entity.BoardKeyframe;
+import com.pixelhub.backend.repository.BoardKeyframeRepository;
+import com.pixelhub.backend.repository.PixelStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardKeyframeService {
+
+    private final BoardKeyframeRepository boardKeyframeRepository;
+    private final PixelStore pixelStore;
+    private final BoardCanvas boardCanvas;
+    private final PixelWriteBehind pixelWriteBehind;
+
+    @Value("${app.history.keyframe-settle-ms:5000}")
+    private long settleMillis;
+
+    public BoardSnapshot getBoardStateAtTime(Instant timestamp) {
+        Optional<BoardKeyframe> keyframe =
+                boardKeyframeRepository.findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(timestamp);
+        if (keyframe.isEmpty()) {
+            BoardSnapshot snapshot = boardCanvas.emptySnapshot();
+            pixelStore.forEachLatestAt(timestamp, snapshot::paint);
+            return snapshot;
+        }
+
+        BoardSnapshot snapshot = BoardSnapshotCodec.decode(keyframe.get().getBoard());
+        pixelStore.forEachPlacedBetween(keyframe.get().getTakenAt(), timestamp, snapshot::paint);
+        return snapshot;
+    }
+
+    @Scheduled(initialDelayString = "${app.history.keyframe-interval-ms:600000}",
+               fixedDelayString = "${app.history.keyframe-interval-ms:600000}")
+    public void createKeyframe() {
+        Instant takenAt = settledUntil();
+        Optional<BoardKeyframe> previous = boardKeyframeRepository.findFirstByOrderByTakenAtDesc();
+
+        BoardSnapshot snapshot;
+        if (previous.isEmpty()) {
+            snapshot = boardCanvas.emptySnapshot();
+            pixelStore.forEachLatestAt(takenAt, snapshot::paint);
+        } else {
+            if (!takenAt.isAfter(previous.get().getTakenAt())) {
+                return;
+            }
+            snapshot = BoardSnapshotCodec.decode(previous.get().getBoard());
+            if (pixelStore.forEachPlacedBetween(previous.get().getTakenAt(), takenAt, snapshot::paint) == 0) {
+                return;
+            }
+        }
+
+        save(takenAt, snapshot);
+    }
+
+    /**
+     * Returns the latest instant whose history can no longer change. Placements reach the store
+     * through the write-behind queue, so it stays before the oldest placement this node has not
+     * stored yet, and at least {@code app.history.keyframe-settle-ms} in the past for the ones
+     * other nodes are still writing. Keyframes and cached timelapses never go past it.
+     */
+    public Instant settledUntil() {
+        Instant settled = Instant.now().minusMillis(settleMillis);
+        Instant stored = pixelWriteBehind.storedUntil();
+        return stored.isBefore(settled) ? stored : settled;
+    }
+
+    /**
+     * Stores the board as of {@code takenAt} unless a keyframe already sits there, so that the
+     * placements before it can be dropped without losing the board state at that instant.
+     * Returns false, storing nothing, while placements before {@code takenAt} may still arrive.
+     */
+    public boolean ensureKeyframeAt(Instant takenAt) {
+        if (boardKeyframeRepository.existsByTakenAt(takenAt)) {
+            return true;
+        }
+        if (takenAt.isAfter(settledUntil())) {
+            return false;
+        }
+        save(takenAt, getBoardStateAtTime(takenAt));
+        return true;
+    }
+
+    private void save(Instant takenAt, BoardSnapshot snapshot) {
+        BoardKeyframe keyframe = new BoardKeyframe();
+        keyframe.setTakenAt(takenAt);
+        keyframe.setBoard(BoardSnapshotCodec.encode(snapshot, BoardSnapshotCodec.Encoding.DEFLATE));
+        boardKeyframeRepository.save(keyframe);
+        log.info("Stored board keyframe at {} ({} bytes)", takenAt, keyframe.getBoard().length);
+    }
+}
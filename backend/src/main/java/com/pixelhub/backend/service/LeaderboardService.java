@@ -0,0 +1,140 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.dto.LeaderBoardResponse;
+import com.pixelhub.backend.model.dto.UserDto;
+import com.pixelhub.backend.model.dto.UserRankDto;
+import com.pixelhub.backend.model.dto.WebSocketMessage;
+import com.pixelhub.backend.model.entity.User;
+import com.pixelhub.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    public static final String LEADERBOARD_TOPIC = "/topic/leaderboard";
+
+    private static final Comparator<UserDto> RANKING = Comparator
+            .comparing(UserDto::getPixelCount, Comparator.reverseOrder())
+            .thenComparing(UserDto::getNickname);
+
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.leaderboard.size:10}")
+    private int defaultSize;
+    @Value("${app.leaderboard.max-size:100}")
+    private int maxSize;
+
+    private final Map<String, UserDto> users = new ConcurrentHashMap<>();
+    private final NavigableSet<UserDto> ranking = new TreeSet<>(RANKING);
+    private List<UserDto> lastPublished = List.of();
+    // Ranking as of the last publish, for rankOf to search without the lock the placement writer takes.
+    private volatile UserDto[] rankSnapshot = new UserDto[0];
+    private volatile boolean changedSinceSnapshot;
+
+    @PostConstruct
+    private synchronized void load() {
+        for (User user : userRepository.findAll()) {
+            UserDto entry = new UserDto(user.getNickname(), user.getPixelCount());
+            users.put(entry.getNickname(), entry);
+            ranking.add(entry);
+        }
+        lastPublished = top(defaultSize);
+        changedSinceSnapshot = true;
+        refreshRankSnapshot();
+        log.info("Loaded {} users into the leaderboard", users.size());
+    }
+
+    public synchronized void register(String nickname) {
+        if (!users.containsKey(nickname)) {
+            UserDto entry = new UserDto(nickname, 0L);
+            users.put(nickname, entry);
+            ranking.add(entry);
+            changedSinceSnapshot = true;
+        }
+    }
+
+    public synchronized void increment(String nickname) {
+        UserDto previous = users.get(nickname);
+        long pixelCount = previous == null ? 1 : previous.getPixelCount() + 1;
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        UserDto entry = new UserDto(nickname, pixelCount);
+        users.put(nickname, entry);
+        ranking.add(entry);
+        changedSinceSnapshot = true;
+    }
+
+    public List<UserDto> top() {
+        return top(defaultSize);
+    }
+
+    public synchronized List<UserDto> top(int limit) {
+        int size = Math.max(0, Math.min(limit, maxSize));
+        List<UserDto> leaders = new ArrayList<>(size);
+        for (UserDto entry : ranking) {
+            if (leaders.size() == size) {
+                break;
+            }
+            leaders.add(entry);
+        }
+        return leaders;
+    }
+
+    /**
+     * Ranks the user's current pixel count against the other users as of the last publish, so
+     * ranks lag by at most {@code app.leaderboard.publish-interval-ms}. The user's own entry in the
+     * snapshot never has more pixels than the current one and so never counts against it.
+     */
+    public Optional<UserRankDto> rankOf(String nickname) {
+        UserDto entry = users.get(nickname);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        int position = Arrays.binarySearch(rankSnapshot, entry, RANKING);
+        int ahead = position >= 0 ? position : -position - 1;
+        return Optional.of(new UserRankDto(nickname, entry.getPixelCount(), ahead + 1));
+    }
+
+    @Scheduled(fixedDelayString = "${app.leaderboard.publish-interval-ms:2000}")
+    public void publish() {
+        refreshRankSnapshot();
+        List<UserDto> leaders = top(defaultSize);
+        if (leaders.equals(lastPublished)) {
+            return;
+        }
+        lastPublished = leaders;
+        messagingTemplate.convertAndSend(LEADERBOARD_TOPIC,
+                new WebSocketMessage<>("leaderboard", new LeaderBoardResponse(leaders)));
+    }
+
+    private void refreshRankSnapshot() {
+        if (!changedSinceSnapshot) {
+            return;
+        }
+        changedSinceSnapshot = false;
+        // Entries are replaced, never mutated, so the values can be copied and sorted without the lock.
+        UserDto[] snapshot = users.values().toArray(UserDto[]::new);
+        Arrays.sort(snapshot, RANKING);
+        rankSnapshot = snapshot;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.RelayedPixel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory relay. Relays created on the same {@link Bus} deliver to each other synchronously;
+ * the bean gets a bus of its own, which makes it a single-node relay that never delivers.
+ */
+@Service
+@ConditionalOnProperty(name = "app.relay.type", havingValue = "loopback")
+public class LoopbackPixelRelay implements PixelRelay {
+
+    private final Bus bus;
+    private final List<Consumer<List<RelayedPixel>>> consumers = new CopyOnWriteArrayList<>();
+
+    public LoopbackPixelRelay() {
+        this(new Bus());
+    }
+
+    public LoopbackPixelRelay(Bus bus) {
+        this.bus = bus;
+        bus.relays.add(this);
+    }
+
+    @Override
+    public void publish(RelayedPixel pixel) {
+        for (LoopbackPixelRelay relay : bus.relays) {
+            if (relay != this) {
+                relay.consumers.forEach(consumer -> consumer.accept(List.of(pixel)));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<RelayedPixel>> consumer) {
+        consumers.add(consumer);
+    }
+
+    public static final class Bus {
+        private final List<LoopbackPixelRelay> relays = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,133 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.codec.PackedPixelCodec;
+import com.pixelhub.backend.model.board.BoardDelta;
+import com.pixelhub.backend.model.dto.PixelBatchDto;
+import com.pixelhub.backend.model.dto.PixelDto;
+import com.pixelhub.backend.model.dto.WebSocketMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcasts the board's changes every {@code app.broadcast.tick-ms}. The tick runs on its own
+ * thread rather than Spring's shared scheduler, where keyframes, checkpoints and partition
+ * maintenance would hold it up for as long as they run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PixelBroadcaster {
+
+    public static final String PIXELS_TOPIC = "/topic/pixels";
+    public static final String PACKED_PIXELS_TOPIC = "/topic/pixels.bin";
+    public static final String TILES_TOPIC_PREFIX = "/topic/tiles/";
+
+    private static final Map<String, Object> PACKED_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BoardCanvas boardCanvas;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.broadcast.tick-ms:50}")
+    private long tickMillis;
+
+    private ScheduledExecutorService ticker;
+    private long broadcastSequence;
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    private void init() {
+        broadcastSequence = boardCanvas.latestSequence();
+        flushTimer = Timer.builder("pixelhub.broadcast.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("pixelhub.broadcast.batch.size")
+                .register(meterRegistry);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "pixel-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::flush, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void stop() {
+        ticker.shutdownNow();
+    }
+
+    public void flush() {
+        try {
+            flushTimer.record(this::broadcastChanges);
+        } catch (RuntimeException e) {
+            // A task that throws would never be scheduled again.
+            log.error("Failed to broadcast board changes", e);
+        }
+    }
+
+    private void broadcastChanges() {
+        Optional<BoardDelta> changes = boardCanvas.changesSince(broadcastSequence);
+        if (changes.isEmpty()) {
+            log.warn("Broadcast fell behind the change log at sequence {}, asking clients to resync", broadcastSequence);
+            broadcastSequence = boardCanvas.latestSequence();
+            messagingTemplate.convertAndSend(PIXELS_TOPIC, new WebSocketMessage<>("resync", broadcastSequence));
+            messagingTemplate.convertAndSend(PACKED_PIXELS_TOPIC,
+                    PackedPixelCodec.encodeResync(broadcastSequence), PACKED_HEADERS);
+            int tileSize = boardCanvas.getTileSize();
+            for (int tileY = 0; tileY * tileSize < boardCanvas.getHeight(); tileY++) {
+                for (int tileX = 0; tileX * tileSize < boardCanvas.getWidth(); tileX++) {
+                    messagingTemplate.convertAndSend(tileTopic(tileX, tileY),
+                            new WebSocketMessage<>("resync", broadcastSequence));
+                }
+            }
+            return;
+        }
+
+        BoardDelta delta = changes.get();
+        if (delta.pixels().isEmpty()) {
+            return;
+        }
+        broadcastSequence = delta.sequence();
+        batchSizeSummary.record(delta.pixels().size());
+
+        PixelBatchDto batch = new PixelBatchDto(delta.sequence(), delta.pixels());
+        messagingTemplate.convertAndSend(PIXELS_TOPIC, new WebSocketMessage<>("batch", batch));
+        messagingTemplate.convertAndSend(PACKED_PIXELS_TOPIC,
+                PackedPixelCodec.encode(delta.sequence(), delta.pixels()), PACKED_HEADERS);
+
+        int tileSize = boardCanvas.getTileSize();
+        Map<String, List<PixelDto>> tiles = new HashMap<>();
+        for (PixelDto pixel : delta.pixels()) {
+            tiles.computeIfAbsent(tileTopic(pixel.getX() / tileSize, pixel.getY() / tileSize),
+                    topic -> new ArrayList<>()).add(pixel);
+        }
+        tiles.forEach((topic, pixels) -> messagingTemplate.convertAndSend(topic,
+                new WebSocketMessage<>("batch", new PixelBatchDto(delta.sequence(), pixels))));
+    }
+
+    public static String tileTopic(int tileX, int tileY) {
+        return TILES_TOPIC_PREFIX + tileX + "/" + tileY;
+    }
+}
@@ -0,0 +1,200 @@
+package com.pixelhub.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maintains the daily partitions of the {@code pixels} table: creates them
+ * {@code app.history.partition.days-ahead} days in advance, so that placements do not land in
+ * {@code pixels_default}, moves rows that did land there into partitions of their own, and drops
+ * the ones that fall out of {@code app.history.retention-days}.
+ * Before a partition is dropped, a keyframe is stored at its upper bound; history older than the
+ * retention window is then only available at keyframe resolution. Every step runs in its own
+ * transaction under an advisory lock, so only one node does the work at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.pixel-store.type", havingValue = "jdbc", matchIfMissing = true)
+public class PixelPartitionService {
+
+    private static final String PREFIX = "pixels_p";
+    private static final long LOCK_KEY = 0x7069_7865_6c73L;
+    private static final String PARTITIONS = """
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'pixels'::regclass
+        ORDER BY c.relname
+        """;
+    private static final String DEFAULT_DAYS = """
+        SELECT DISTINCT placed_at::date
+        FROM pixels_default
+        """;
+    private static final String HAS_DEFAULT_ROWS = """
+        SELECT EXISTS (SELECT 1 FROM pixels_default WHERE placed_at >= ? AND placed_at < ?)
+        """;
+    private static final String MOVE_DEFAULT_ROWS = """
+        WITH moved AS (
+            DELETE FROM pixels_default
+            WHERE placed_at >= ? AND placed_at < ?
+            RETURNING id, x, y, color, placed_at
+        )
+        INSERT INTO pixels (id, x, y, color, placed_at)
+        SELECT id, x, y, color, placed_at
+        FROM moved
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardKeyframeService boardKeyframeService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.history.partition.days-ahead:7}")
+    private int daysAhead;
+    @Value("${app.history.retention-days:0}")
+    private int retentionDays;
+
+    private final AtomicInteger partitionCount = new AtomicInteger();
+    private Counter createdCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    private void registerMetrics() {
+        Gauge.builder("pixelhub.history.partitions", partitionCount, AtomicInteger::get)
+                .register(meterRegistry);
+        createdCounter = Counter.builder("pixelhub.history.partitions.changes").tag("change", "created")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("pixelhub.history.partitions.changes").tag("change", "dropped")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("pixelhub.history.partitions.changes").tag("change", "failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.history.partition.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<LocalDate> existing = partitionDays();
+
+        // Days that already have rows in pixels_default, e.g. after maintenance was down for a while.
+        Set<LocalDate> missing = new TreeSet<>(jdbcTemplate.queryForList(DEFAULT_DAYS, LocalDate.class));
+        for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            missing.add(day);
+        }
+        missing.removeAll(existing);
+        for (LocalDate day : missing) {
+            locked("create partition " + name(day), () -> create(day));
+        }
+        if (!missing.isEmpty()) {
+            existing = partitionDays();
+        }
+
+        if (retentionDays > 0) {
+            LocalDate cutoff = today.minusDays(retentionDays);
+            for (LocalDate day : existing) {
+                // The partition covers [day, day + 1); keep it until all of it is past the cutoff.
+                if (day.plusDays(1).isAfter(cutoff)) {
+                    break;
+                }
+                locked("drop partition " + name(day), () -> drop(day));
+            }
+        }
+
+        partitionCount.set(partitionDays().size());
+    }
+
+    /**
+     * Creates the partition for a day. Rows for that day in {@code pixels_default} would make the
+     * new range fail the default partition's constraint, so then the default partition is
+     * detached, the rows are moved into the new partition and it is attached again, all in the
+     * caller's transaction.
+     */
+    private void create(LocalDate day) {
+        LocalDate next = day.plusDays(1);
+        String create = String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF pixels FOR VALUES FROM ('%s') TO ('%s')",
+                name(day), day, next);
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_DEFAULT_ROWS, Boolean.class, day, next))) {
+            jdbcTemplate.execute(create);
+            createdCounter.increment();
+            log.info("Created pixels partition {}", name(day));
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE pixels DETACH PARTITION pixels_default");
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update(MOVE_DEFAULT_ROWS, day, next);
+        jdbcTemplate.execute("ALTER TABLE pixels ATTACH PARTITION pixels_default DEFAULT");
+        createdCounter.increment();
+        log.warn("Created pixels partition {} and moved {} placements into it from pixels_default", name(day), moved);
+    }
+
+    private void drop(LocalDate day) {
+        if (!boardKeyframeService.ensureKeyframeAt(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())) {
+            log.warn("Keeping pixels partition {}, placements from that day are still being written", name(day));
+            return;
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name(day));
+        droppedCounter.increment();
+        log.info("Dropped pixels partition {} after compacting it into a keyframe", name(day));
+    }
+
+    private void locked(String description, Runnable step) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean acquired = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (Boolean.TRUE.equals(acquired)) {
+                    step.run();
+                } else {
+                    log.debug("Skipping {}, another node is maintaining pixels partitions", description);
+                }
+            });
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            log.error("Failed to {}", description, e);
+        }
+    }
+
+    /**
+     * Returns the days of the existing daily partitions, oldest first; {@code pixels_default} is skipped.
+     */
+    private List<LocalDate> partitionDays() {
+        return jdbcTemplate.queryForList(PARTITIONS, String.class).stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .map(name -> {
+                    try {
+                        return LocalDate.parse(name.substring(PREFIX.length()), DateTimeFormatter.BASIC_ISO_DATE);
+                    } catch (DateTimeParseException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    private static String name(LocalDate day) {
+        return PREFIX + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.RelayedPixel;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries placements between backend instances. Every node publishes the placements it accepted
+ * and applies the ones published by other nodes, so each node's board and {@code /topic/pixels}
+ * fan-out see all placements. {@code app.relay.type} selects {@link PostgresPixelRelay}
+ * (default) or {@link LoopbackPixelRelay}.
+ */
+public interface PixelRelay {
+
+    /**
+     * Queues a local placement for the other nodes. Must not block.
+     */
+    void publish(RelayedPixel pixel);
+
+    /**
+     * Registers the consumer of batches published by other nodes.
+     */
+    void subscribe(Consumer<List<RelayedPixel>> consumer);
+}
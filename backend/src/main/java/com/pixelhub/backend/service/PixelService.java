@@ -1,30 +1,49 @@
 package com.pixelhub.backend.service;
 
+import com.pixelhub.backend.model.board.BoardDelta;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.model.board.PlacedPixel;
+import com.pixelhub.backend.model.board.RelayedPixel;
 import com.pixelhub.backend.model.dto.PixelDto;
-import com.pixelhub.backend.model.dto.WebSocketMessage;
-import com.pixelhub.backend.model.entity.Pixel;
-import com.pixelhub.backend.repository.PixelRepository;
-import com.pixelhub.backend.repository.UserRepository;
+import com.pixelhub.backend.security.TokenPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Placements are applied by a single writer thread. Inbound STOMP threads only copy a request
+ * into a {@link PlacementRing}; the writer takes them in arrival order and runs validation, rate
+ * limiting, the board update and sequencing without contending with other placements. It hands
+ * accepted pixels on to the write-behind queue, while broadcasting reads them from the change log.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PixelService {
 
-    private final UserRepository userRepository;
-    private final PixelRepository pixelRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final PlacementRateLimiter placementRateLimiter;
+    private final BoardCanvas boardCanvas;
+    private final PixelWriteBehind pixelWriteBehind;
+    private final BoardKeyframeService boardKeyframeService;
+    private final LeaderboardService leaderboardService;
+    private final TilePyramid tilePyramid;
+    private final PixelRelay pixelRelay;
+    private final MeterRegistry meterRegistry;
 
-    @Value("${app.rate-limit-seconds:30}")
-    private int rateLimitSeconds;
     @Value("${app.canvas-width:2000}")
     private int canvasWidth;
     @Value("${app.canvas-height:2000}")
@@ -33,46 +52,216 @@ public class PixelService {
     private int minColor;
     @Value("${app.max-color:127}")
     private int maxColor;
+    @Value("${app.placement.ring-size:65536}")
+    private int ringSize;
+    @Value("${app.placement.drain-limit:256}")
+    private int drainLimit;
+    @Value("${app.placement.idle-park-us:1000}")
+    private long idleParkMicros;
 
-    @Transactional
-    public void placePixel(PixelDto request, String nickname) {
-        if (!isValid(request)) {
+    private PlacementRing ring;
+    private PlacementRing.Handler writer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean idle;
+
+    private Timer queueTimer;
+    private Timer validateTimer;
+    private Timer rateLimitTimer;
+    private Timer persistTimer;
+    private Timer broadcastTimer;
+    private Counter placedCounter;
+    private Counter invalidCounter;
+    private Counter rateLimitedCounter;
+    private Counter rejectedCounter;
+    private Counter relayedCounter;
+
+    @PostConstruct
+    private void start() {
+        ring = new PlacementRing(ringSize);
+        writer = this::apply;
+
+        Gauge.builder("pixelhub.placement.ring.depth", ring, PlacementRing::size)
+                .register(meterRegistry);
+        queueTimer = stageTimer("queue");
+        validateTimer = stageTimer("validate");
+        rateLimitTimer = stageTimer("rate_limit");
+        persistTimer = stageTimer("persist");
+        broadcastTimer = stageTimer("broadcast");
+        placedCounter = outcomeCounter("placed");
+        invalidCounter = outcomeCounter("invalid");
+        rateLimitedCounter = outcomeCounter("rate_limited");
+        rejectedCounter = outcomeCounter("rejected");
+        relayedCounter = outcomeCounter("relayed");
+
+        running = true;
+        writerThread = new Thread(this::run, "placement-writer");
+        writerThread.start();
+        pixelRelay.subscribe(this::applyRemote);
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void placePixel(PixelDto request, TokenPrincipal user) {
+        // Missing fields become out-of-range values, validation happens on the writer.
+        int x = request.getX() == null ? -1 : request.getX();
+        int y = request.getY() == null ? -1 : request.getY();
+        int color = request.getC() == null ? Integer.MIN_VALUE : request.getC();
+        if (!running || !boardCanvas.isLoaded() || !ring.offer(x, y, color, user.userId(), user.getName(), false, 0)) {
+            rejectedCounter.increment();
             return;
         }
+        wakeWriter();
+    }
 
-        userRepository.findByNickname(nickname).ifPresent(user -> {
-            if (user.getLastPlacedAt() != null &&
-                Instant.now().isBefore(user.getLastPlacedAt().plus(rateLimitSeconds, ChronoUnit.SECONDS))) {
-                return;
+    /**
+     * Queues placements accepted by other nodes. They are already rate limited and persisted
+     * there, so the writer only applies them to the board, keeping their original time so that
+     * every node resolves races on a cell the same way.
+     */
+    private void applyRemote(List<RelayedPixel> pixels) {
+        for (RelayedPixel pixel : pixels) {
+            long placedAt = ChronoUnit.MICROS.between(Instant.EPOCH, pixel.placedAt());
+            if (!running || !ring.offer(pixel.x(), pixel.y(), pixel.color(), 0, pixel.nickname(), true, placedAt)) {
+                rejectedCounter.increment();
             }
+        }
+        wakeWriter();
+    }
 
-            Pixel pixel = new Pixel();
-            pixel.setX(request.getX());
-            pixel.setY(request.getY());
-            pixel.setColor(request.getC());
-            pixel.setPlacedAt(Instant.now());
-            pixelRepository.save(pixel);
+    private void wakeWriter() {
+        if (idle) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void run() {
+        while (running || !ring.isEmpty()) {
+            if (ring.drain(writer, drainLimit) > 0) {
+                continue;
+            }
+            idle = true;
+            // Re-checked after publishing the flag, a producer that missed it has already published.
+            if (running && ring.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleParkMicros));
+            }
+            idle = false;
+        }
+    }
 
-            user.setPixelCount(user.getPixelCount() + 1);
-            user.setLastPlacedAt(Instant.now());
-            userRepository.save(user);
+    private void apply(int x, int y, int color, int userId, String nickname, boolean remote,
+                       long placedAt, long offeredAt) {
+        try {
+            if (remote) {
+                placeRemote(x, y, color, nickname, placedAt);
+            } else {
+                place(x, y, color, userId, nickname, offeredAt, System.nanoTime());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to apply placement at ({}, {}) by user {}", x, y, userId, e);
+        }
+    }
+
+    private void place(int x, int y, int color, int userId, String nickname, long offeredAt, long start) {
+        queueTimer.record(start - offeredAt, TimeUnit.NANOSECONDS);
+        boolean valid = isValid(x, y, color);
+        long validated = System.nanoTime();
+        validateTimer.record(validated - start, TimeUnit.NANOSECONDS);
+        if (!valid) {
+            invalidCounter.increment();
+            return;
+        }
+
+        boolean acquired = placementRateLimiter.tryAcquire(userId);
+        long limited = System.nanoTime();
+        rateLimitTimer.record(limited - validated, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rateLimitedCounter.increment();
+            return;
+        }
+
+        // Truncated to what the database keeps, so the board and board_cells order placements alike.
+        Instant placedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        PlacedPixel pixel = new PlacedPixel(x, y, color, userId, placedAt);
+        boolean enqueued = pixelWriteBehind.enqueue(pixel);
+        long persisted = System.nanoTime();
+        persistTimer.record(persisted - limited, TimeUnit.NANOSECONDS);
+        if (!enqueued) {
+            rejectedCounter.increment();
+            return;
+        }
+
+        if (boardCanvas.set(x, y, color, ChronoUnit.MICROS.between(Instant.EPOCH, placedAt))) {
+            tilePyramid.markDirty(x, y);
+        }
+        leaderboardService.increment(nickname);
+        pixelRelay.publish(new RelayedPixel(x, y, color, nickname, placedAt));
+        broadcastTimer.record(System.nanoTime() - persisted, TimeUnit.NANOSECONDS);
+        placedCounter.increment();
+    }
+
+    private void placeRemote(int x, int y, int color, String nickname, long placedAt) {
+        if (!isValid(x, y, color)) {
+            invalidCounter.increment();
+            return;
+        }
+        if (boardCanvas.set(x, y, color, placedAt)) {
+            tilePyramid.markDirty(x, y);
+        }
+        leaderboardService.increment(nickname);
+        relayedCounter.increment();
+    }
+
+    public BoardSnapshot getFullBoard() {
+        return boardCanvas.snapshot();
+    }
+
+    public int getTileSize() {
+        return boardCanvas.getTileSize();
+    }
+
+    public Optional<BoardSnapshot> getTile(int tileX, int tileY) {
+        return boardCanvas.tile(tileX, tileY);
+    }
+
+    public Optional<BoardDelta> getChangesSince(long sequence) {
+        return boardCanvas.changesSince(sequence);
+    }
+
+    public BoardSnapshot getBoardStateAtTime(Instant timestamp) {
+        return boardKeyframeService.getBoardStateAtTime(timestamp);
+    }
 
-            WebSocketMessage<PixelDto> broadcastMessage = new WebSocketMessage<>("get", request);
-            messagingTemplate.convertAndSend("/topic/pixels", broadcastMessage);
-        });
+    boolean isValid(PixelDto request) {
+        return request.getX() != null && request.getY() != null && request.getC() != null &&
+               isValid(request.getX(), request.getY(), request.getC());
     }
 
-    public List<Pixel> getFullBoard() {
-        return pixelRepository.findCurrentBoardState();
+    private boolean isValid(int x, int y, int color) {
+        return x >= 0 && x < canvasWidth &&
+               y >= 0 && y < canvasHeight &&
+               color >= minColor && color <= maxColor;
     }
 
-    public List<Pixel> getBoardStateAtTime(Instant timestamp) {
-        return pixelRepository.findBoardStateAtTime(timestamp);
+    private Timer stageTimer(String stage) {
+        return Timer.builder("pixelhub.placement.stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    private boolean isValid(PixelDto request) {
-        return request.getX() != null && request.getX() >= 0 && request.getX() < canvasWidth &&
-               request.getY() != null && request.getY() >= 0 && request.getY() < canvasHeight &&
-               request.getC() != null && request.getC() >= minColor && request.getC() <= maxColor;
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("pixelhub.placement")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,276 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+import com.pixelhub.backend.repository.PixelStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PixelWriteBehind {
+
+    private static final String UPDATE_USER =
+            "UPDATE users SET pixel_count = pixel_count + ?, last_placed_at = GREATEST(last_placed_at, ?) WHERE id = ?";
+
+    private final PixelStore pixelStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.write-behind.queue-capacity:100000}")
+    private int queueCapacity;
+    @Value("${app.write-behind.batch-size:1000}")
+    private int batchSize;
+    @Value("${app.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+    @Value("${app.write-behind.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+    @Value("${app.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    private BlockingQueue<PlacedPixel> queue;
+    private Thread flusher;
+    private volatile boolean running;
+    // placedAt of every placement not stored yet, by enqueue order: the queue plus one batch in flight.
+    private long[] pendingMicros;
+    // Placements enqueued and placements done with (stored or dropped); only the writer and the flusher advance them.
+    private volatile long enqueuedCount;
+    private volatile long doneCount;
+
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+    private Counter rejectedCounter;
+    private Counter failedFlushCounter;
+    private Counter deadLetterCounter;
+
+    @PostConstruct
+    private void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        pendingMicros = new long[queueCapacity + batchSize];
+
+        Gauge.builder("pixelhub.write_behind.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        flushTimer = Timer.builder("pixelhub.write_behind.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("pixelhub.write_behind.batch.size")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("pixelhub.write_behind.rejected")
+                .register(meterRegistry);
+        failedFlushCounter = Counter.builder("pixelhub.write_behind.flush.failures")
+                .register(meterRegistry);
+        deadLetterCounter = Counter.builder("pixelhub.write_behind.dropped")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::run, "pixel-write-behind");
+        flusher.start();
+    }
+
+    /**
+     * Called from the placement writer only, so it never waits: a full queue rejects the
+     * placement. The placement is counted before it is queued, so {@link #storedUntil()} sees it
+     * before the flusher can take it.
+     */
+    public boolean enqueue(PlacedPixel pixel) {
+        long enqueued = enqueuedCount;
+        // With every slot pending the queue is full as well; the oldest slot must not be overwritten.
+        if (running && enqueued - doneCount < pendingMicros.length) {
+            pendingMicros[(int) (enqueued % pendingMicros.length)] = ChronoUnit.MICROS.between(Instant.EPOCH, pixel.placedAt());
+            enqueuedCount = enqueued + 1;
+            if (queue.offer(pixel)) {
+                return true;
+            }
+            enqueuedCount = enqueued;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Every placement this node accepted at or before the returned instant has been stored. It
+     * trails the clock by the oldest placement still queued or being flushed, which can be
+     * minutes behind while the database is unavailable. Placements are enqueued in placement
+     * order and stored in that order, so the oldest one pending is the one after the last done.
+     */
+    public Instant storedUntil() {
+        while (true) {
+            long done = doneCount;
+            if (done >= enqueuedCount) {
+                return Instant.now();
+            }
+            long oldestMicros = pendingMicros[(int) (done % pendingMicros.length)];
+            // The slot is only reused once the flusher has moved past it.
+            if (doneCount == done) {
+                return Instant.EPOCH.plus(oldestMicros - 1, ChronoUnit.MICROS);
+            }
+        }
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Write-behind stopped, {} placements left unflushed", queue.size());
+    }
+
+    private void run() {
+        List<PlacedPixel> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flushWithRetry(batch);
+                doneCount += batch.size();
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PlacedPixel> batch) throws InterruptedException {
+        PlacedPixel first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PlacedPixel next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flushWithRetry(List<PlacedPixel> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> flush(batch));
+                batchSizeSummary.record(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                failedFlushCounter.increment();
+                if (!running) {
+                    log.error("Dropping {} placements, flush failed during shutdown", batch.size(), e);
+                    return;
+                }
+                // An unreachable database is waited out; anything else is retried a few times only.
+                if (!isTransient(e) && attempt >= maxAttempts) {
+                    isolate(batch, e);
+                    return;
+                }
+                log.warn("Flush of {} placements failed, retrying in {} ms", batch.size(), retryBackoffMillis, e);
+                try {
+                    Thread.sleep(retryBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a batch that keeps failing for a non-transient reason until the placements that
+     * cannot be stored are isolated. Those are logged and dropped, the rest is stored.
+     */
+    private void isolate(List<PlacedPixel> batch, RuntimeException failure) {
+        if (batch.size() == 1) {
+            deadLetterCounter.increment();
+            log.error("Dropping placement {}, it cannot be stored", batch.getFirst(), failure);
+            return;
+        }
+        int middle = batch.size() / 2;
+        for (List<PlacedPixel> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+            try {
+                flush(half);
+            } catch (RuntimeException e) {
+                failedFlushCounter.increment();
+                if (isTransient(e)) {
+                    flushWithRetry(half);
+                } else {
+                    isolate(half, e);
+                }
+            }
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+               || e instanceof RecoverableDataAccessException
+               || e instanceof DataAccessResourceFailureException
+               || e instanceof CannotCreateTransactionException;
+    }
+
+    private void flush(List<PlacedPixel> batch) {
+        Map<Integer, UserDelta> userDeltas = new LinkedHashMap<>();
+        for (PlacedPixel pixel : batch) {
+            userDeltas.computeIfAbsent(pixel.userId(), userId -> new UserDelta()).add(pixel.placedAt());
+        }
+
+        // The JDBC store joins this transaction. The journal store writes outside of it, so a
+        // retried batch may be journaled twice, which replays to the same board.
+        transactionTemplate.executeWithoutResult(status -> {
+            pixelStore.append(batch);
+            jdbcTemplate.batchUpdate(UPDATE_USER, new ArrayList<>(userDeltas.entrySet()), userDeltas.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getValue().count);
+                ps.setTimestamp(2, Timestamp.from(entry.getValue().lastPlacedAt));
+                ps.setInt(3, entry.getKey());
+            });
+        });
+    }
+
+    private static final class UserDelta {
+        private long count;
+        private Instant lastPlacedAt = Instant.EPOCH;
+
+        private void add(Instant placedAt) {
+            count++;
+            if (placedAt.isAfter(lastPlacedAt)) {
+                lastPlacedAt = placedAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pixelhub.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-node cooldown kept in memory. Entries are seeded from {@code users.last_placed_at} when a
+ * user connects, so a restart or a reconnect to another node does not reset the cooldown of
+ * placements that were already stored; placements still queued for the write-behind are not
+ * known there yet.
+ */
+@Service
+public class PlacementRateLimiter {
+
+    private final ConcurrentMap<Integer, Long> lastPlacements = new ConcurrentHashMap<>();
+
+    @Value("${app.rate-limit-seconds:30}")
+    private int rateLimitSeconds;
+
+    public boolean tryAcquire(int userId) {
+        long now = System.currentTimeMillis();
+        long cooldownMillis = rateLimitSeconds * 1000L;
+        // Boxed on purpose: only our own instance coming back means this call took the slot,
+        // a concurrent placement in the same millisecond stores a different one.
+        Long granted = Long.valueOf(now);
+        Long stored = lastPlacements.compute(userId, (key, last) ->
+                last == null || now >= last + cooldownMillis ? granted : last);
+        return stored == granted;
+    }
+
+    /**
+     * Records a placement made before this node saw the user, unless a later one is known.
+     */
+    public void seed(int userId, Instant lastPlacedAt) {
+        long last = lastPlacedAt.toEpochMilli();
+        if (System.currentTimeMillis() < last + rateLimitSeconds * 1000L) {
+            lastPlacements.merge(userId, last, Math::max);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long expiredBefore = System.currentTimeMillis() - rateLimitSeconds * 1000L;
+        lastPlacements.entrySet().removeIf(entry -> entry.getValue() <= expiredBefore);
+    }
+}
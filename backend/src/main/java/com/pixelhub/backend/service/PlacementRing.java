@@ -0,0 +1,111 @@
+package com.pixelhub.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue of placement requests. Slots are preallocated
+ * as parallel arrays, so offering and draining never allocate. Producers claim a sequence with
+ * a CAS, fill the slot and publish it by storing the sequence into the slot; the consumer takes
+ * slots strictly in claim order and stops at the first one that is not published yet.
+ */
+final class PlacementRing {
+
+    private final int capacity;
+    private final int mask;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] colors;
+    private final int[] userIds;
+    private final String[] nicknames;
+    private final boolean[] remotes;
+    private final long[] placedAt;
+    private final long[] offeredAt;
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    PlacementRing(int requestedCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        xs = new int[capacity];
+        ys = new int[capacity];
+        colors = new int[capacity];
+        userIds = new int[capacity];
+        nicknames = new String[capacity];
+        remotes = new boolean[capacity];
+        placedAt = new long[capacity];
+        offeredAt = new long[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            published.set(slot, -1);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+
+    boolean isEmpty() {
+        return claimed.get() == consumed;
+    }
+
+    /**
+     * Returns false without waiting when the ring is full. {@code placedAt} is only meaningful
+     * for remote placements, local ones are timestamped by the consumer.
+     */
+    boolean offer(int x, int y, int color, int userId, String nickname, boolean remote, long placedAt) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        xs[slot] = x;
+        ys[slot] = y;
+        colors[slot] = color;
+        userIds[slot] = userId;
+        nicknames[slot] = nickname;
+        remotes[slot] = remote;
+        this.placedAt[slot] = placedAt;
+        offeredAt[slot] = System.nanoTime();
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published placements to the handler in order. Must only be
+     * called from the consumer thread, and the handler must not throw.
+     */
+    int drain(Handler handler, int limit) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                break;
+            }
+            String nickname = nicknames[slot];
+            nicknames[slot] = null;
+            handler.accept(xs[slot], ys[slot], colors[slot], userIds[slot], nickname, remotes[slot],
+                    placedAt[slot], offeredAt[slot]);
+            next++;
+            drained++;
+        }
+        consumed = next;
+        return drained;
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void accept(int x, int y, int color, int userId, String nickname, boolean remote, long placedAt, long offeredAt);
+    }
+}
@@ -0,0 +1,245 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.RelayedPixel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relays placements through PostgreSQL {@code LISTEN/NOTIFY}. Local placements are collected for
+ * {@code app.relay.flush-ms} and sent as base64 batches on one channel: node id (i64), then per
+ * pixel {@code x} (u16), {@code y} (u16), color (u8), placement time in epoch microseconds (i64)
+ * and the UTF-8 nickname prefixed by its length (u16). A batch is split so that each payload stays under the 8000-byte NOTIFY limit.
+ * Every node listens on a dedicated connection and skips its own batches.
+ * <p>
+ * Notifications sent while a node is disconnected are lost to it; it logs the gap and catches up
+ * from the pixel store on its next start.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.relay.type", havingValue = "postgres", matchIfMissing = true)
+public class PostgresPixelRelay implements PixelRelay {
+
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+    // Base64 grows the payload by a third.
+    private static final int MAX_RAW_BYTES = MAX_PAYLOAD_BYTES / 4 * 3;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.relay.channel:pixelhub_pixels}")
+    private String channel;
+    @Value("${app.relay.queue-capacity:100000}")
+    private int queueCapacity;
+    @Value("${app.relay.flush-ms:20}")
+    private long flushMillis;
+    @Value("${app.relay.reconnect-backoff-ms:1000}")
+    private long reconnectBackoffMillis;
+
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+    private final List<Consumer<List<RelayedPixel>>> consumers = new CopyOnWriteArrayList<>();
+    private BlockingQueue<RelayedPixel> queue;
+    private Thread publisher;
+    private Thread listener;
+    private volatile boolean running;
+
+    private Counter publishedCounter;
+    private Counter receivedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    private void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        publishedCounter = Counter.builder("pixelhub.relay.pixels").tag("direction", "published").register(meterRegistry);
+        receivedCounter = Counter.builder("pixelhub.relay.pixels").tag("direction", "received").register(meterRegistry);
+        droppedCounter = Counter.builder("pixelhub.relay.pixels").tag("direction", "dropped").register(meterRegistry);
+
+        running = true;
+        publisher = new Thread(this::publishLoop, "pixel-relay-publisher");
+        publisher.start();
+        listener = new Thread(this::listenLoop, "pixel-relay-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+        listener.interrupt();
+        try {
+            publisher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void publish(RelayedPixel pixel) {
+        if (!queue.offer(pixel)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<RelayedPixel>> consumer) {
+        consumers.add(consumer);
+    }
+
+    private void publishLoop() {
+        List<RelayedPixel> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                RelayedPixel first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                TimeUnit.MILLISECONDS.sleep(running ? flushMillis : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            queue.drainTo(batch);
+            try {
+                for (String payload : encode(nodeId, batch)) {
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+                }
+                publishedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                droppedCounter.increment(batch.size());
+                log.warn("Failed to relay {} placements to other nodes", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for placements from other nodes on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) flushMillis * 10);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Lost the relay connection, placements from other nodes are missed until it is back", e);
+                try {
+                    Thread.sleep(reconnectBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            Batch batch = decode(payload);
+            if (batch.nodeId() == nodeId) {
+                return;
+            }
+            receivedCounter.increment(batch.pixels().size());
+            consumers.forEach(consumer -> consumer.accept(batch.pixels()));
+        } catch (RuntimeException e) {
+            log.warn("Skipping malformed relay payload", e);
+        }
+    }
+
+    static List<String> encode(long nodeId, List<RelayedPixel> pixels) {
+        List<String> payloads = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(MAX_RAW_BYTES);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeLong(nodeId);
+            for (RelayedPixel pixel : pixels) {
+                byte[] nickname = pixel.nickname().getBytes(StandardCharsets.UTF_8);
+                int size = 2 + 2 + 1 + 8 + 2 + nickname.length;
+                if (bytes.size() + size > MAX_RAW_BYTES && bytes.size() > Long.BYTES) {
+                    payloads.add(Base64.getEncoder().encodeToString(bytes.toByteArray()));
+                    bytes.reset();
+                    out.writeLong(nodeId);
+                }
+                out.writeShort(pixel.x());
+                out.writeShort(pixel.y());
+                out.writeByte(pixel.color());
+                out.writeLong(ChronoUnit.MICROS.between(Instant.EPOCH, pixel.placedAt()));
+                out.writeShort(nickname.length);
+                out.write(nickname);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (bytes.size() > Long.BYTES) {
+            payloads.add(Base64.getEncoder().encodeToString(bytes.toByteArray()));
+        }
+        return payloads;
+    }
+
+    static Batch decode(String payload) {
+        byte[] raw = Base64.getDecoder().decode(payload);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            long nodeId = in.readLong();
+            List<RelayedPixel> pixels = new ArrayList<>();
+            while (in.available() > 0) {
+                int x = in.readUnsignedShort();
+                int y = in.readUnsignedShort();
+                int color = in.readUnsignedByte();
+                Instant placedAt = Instant.EPOCH.plus(in.readLong(), ChronoUnit.MICROS);
+                byte[] nickname = in.readNBytes(in.readUnsignedShort());
+                pixels.add(new RelayedPixel(x, y, color, new String(nickname, StandardCharsets.UTF_8), placedAt));
+            }
+            return new Batch(nodeId, pixels);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record Batch(long nodeId, List<RelayedPixel> pixels) {
+    }
+}
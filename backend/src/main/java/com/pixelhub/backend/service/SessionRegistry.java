@@ -0,0 +1,45 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.security.TokenPrincipal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class SessionRegistry {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TokenPrincipal> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void registerGauge() {
+        Gauge.builder("pixelhub.stomp.sessions", sessions, Map::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        if (event.getUser() instanceof TokenPrincipal principal) {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+            if (sessionId != null) {
+                sessions.put(sessionId, principal);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+}
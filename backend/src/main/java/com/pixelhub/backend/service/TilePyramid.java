@@ -0,0 +1,313 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.Palette;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-resolution PNG tiles of the current board. Level {@link #getMaxLevel()} maps one
+ * canvas cell to one tile pixel and is rendered from the board; each level above averages 2x2
+ * pixels of the four tiles below it, down to level 0 which covers the whole canvas in one tile.
+ * Every tile has a version that placements bump, and rendered tiles are cached by version in a
+ * byte-bounded LRU, so a tile is only re-rendered when it is requested after it changed.
+ * Concurrent requests for the same tile share one render. On a busy board every placement
+ * dirties the coarse levels, so above the base level a cached tile keeps being served until it
+ * is {@code app.pyramid.min-render-interval-ms} old.
+ */
+@Service
+@RequiredArgsConstructor
+public class TilePyramid {
+
+    private final BoardCanvas boardCanvas;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.pyramid.tile-size:256}")
+    private int tileSize;
+    @Value("${app.pyramid.cache-bytes:67108864}")
+    private long cacheBytes;
+    @Value("${app.pyramid.min-render-interval-ms:2000}")
+    private long minRenderIntervalMillis;
+
+    private int maxLevel;
+    private AtomicLongArray[] versions;
+    // Versions restart at zero with the process, the boot time keeps ETags from colliding.
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<TileKey, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+    private final ConcurrentMap<TileKey, CompletableFuture<Entry>> renders = new ConcurrentHashMap<>();
+
+    private Timer renderTimer;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    private void init() {
+        int span = Math.max(boardCanvas.getWidth(), boardCanvas.getHeight());
+        while ((long) tileSize << maxLevel < span) {
+            maxLevel++;
+        }
+        versions = new AtomicLongArray[maxLevel + 1];
+        for (int level = 0; level <= maxLevel; level++) {
+            int tiles = tilesPerSide(level);
+            versions[level] = new AtomicLongArray(tiles * tiles);
+        }
+
+        renderTimer = Timer.builder("pixelhub.pyramid.render").register(meterRegistry);
+        cacheHits = Counter.builder("pixelhub.pyramid.cache").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("pixelhub.pyramid.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public void markDirty(int x, int y) {
+        for (int level = 0; level <= maxLevel; level++) {
+            int span = cellsPerTile(level);
+            versions[level].incrementAndGet(x / span * tilesPerSide(level) + y / span);
+        }
+    }
+
+    /**
+     * Returns the ETag of the tile {@link #render} would serve now, or empty if the tile is
+     * outside the pyramid.
+     */
+    public Optional<String> etag(int level, int tileX, int tileY) {
+        if (!contains(level, tileX, tileY)) {
+            return Optional.empty();
+        }
+        TileKey key = new TileKey(level, tileX, tileY);
+        long version = version(key);
+        Entry cached = cached(key);
+        if (cached != null && servable(cached, version, true)) {
+            return Optional.of(cached.tile().etag());
+        }
+        return Optional.of(etag(key, version));
+    }
+
+    public Optional<RenderedTile> render(int level, int tileX, int tileY) {
+        if (!contains(level, tileX, tileY)) {
+            return Optional.empty();
+        }
+        return Optional.of(tile(new TileKey(level, tileX, tileY), true).tile());
+    }
+
+    /**
+     * Returns the tile at its current version or newer, or a cached one within the minimum
+     * render interval if {@code allowStale}. Parents never allow it, so a tile is never tagged
+     * with a version its children had not reached yet.
+     */
+    private Entry tile(TileKey key, boolean allowStale) {
+        while (true) {
+            // Read the version before the board so that the cached image is never older than its tag.
+            long version = version(key);
+            Entry cached = cached(key);
+            if (cached != null && servable(cached, version, allowStale)) {
+                cacheHits.increment();
+                return cached;
+            }
+
+            CompletableFuture<Entry> flight = new CompletableFuture<>();
+            CompletableFuture<Entry> running = renders.putIfAbsent(key, flight);
+            if (running != null) {
+                Entry shared = join(running);
+                if (shared.tile().version() >= version) {
+                    return shared;
+                }
+                continue;
+            }
+
+            cacheMisses.increment();
+            try {
+                Entry rendered = renderTimer.record(() -> render(key, version));
+                store(key, rendered);
+                flight.complete(rendered);
+                return rendered;
+            } catch (RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                renders.remove(key, flight);
+            }
+        }
+    }
+
+    private boolean servable(Entry cached, long version, boolean allowStale) {
+        if (cached.tile().version() >= version) {
+            return true;
+        }
+        return allowStale && cached.level() < maxLevel
+               && System.nanoTime() - cached.renderedAt() < TimeUnit.MILLISECONDS.toNanos(minRenderIntervalMillis);
+    }
+
+    private Entry render(TileKey key, long version) {
+        int span = cellsPerTile(key.level());
+        int scale = span / tileSize;
+        int width = (Math.min(span, boardCanvas.getWidth() - key.tileX() * span) + scale - 1) / scale;
+        int height = (Math.min(span, boardCanvas.getHeight() - key.tileY() * span) + scale - 1) / scale;
+        int[] rgb = key.level() == maxLevel
+                ? renderBase(key, width, height)
+                : renderFromChildren(key, width, height);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, rgb, 0, width);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        RenderedTile tile = new RenderedTile(version, etag(key, version), out.toByteArray());
+        return new Entry(tile, key.level(), width, height, rgb, System.nanoTime());
+    }
+
+    private int[] renderBase(TileKey key, int width, int height) {
+        // Copies one tile's worth of cells, the board lock is never held for more.
+        byte[] cells = boardCanvas.region(key.tileX() * tileSize, key.tileY() * tileSize, width, height).cells();
+        int[] rgb = new int[width * height];
+        for (int i = 0; i < rgb.length; i++) {
+            rgb[i] = Palette.rgb(cells[i]);
+        }
+        return rgb;
+    }
+
+    private int[] renderFromChildren(TileKey key, int width, int height) {
+        int[] red = new int[width * height];
+        int[] green = new int[width * height];
+        int[] blue = new int[width * height];
+        int[] count = new int[width * height];
+        for (int dy = 0; dy < 2; dy++) {
+            for (int dx = 0; dx < 2; dx++) {
+                int childX = key.tileX() * 2 + dx;
+                int childY = key.tileY() * 2 + dy;
+                if (!contains(key.level() + 1, childX, childY)) {
+                    continue;
+                }
+                Entry child = tile(new TileKey(key.level() + 1, childX, childY), false);
+                for (int cy = 0; cy < child.height(); cy++) {
+                    int py = (dy * tileSize + cy) / 2;
+                    for (int cx = 0; cx < child.width(); cx++) {
+                        int px = (dx * tileSize + cx) / 2;
+                        if (px >= width || py >= height) {
+                            continue;
+                        }
+                        int rgb = child.rgb()[cy * child.width() + cx];
+                        int pixel = py * width + px;
+                        red[pixel] += rgb >>> 16;
+                        green[pixel] += (rgb >>> 8) & 0xff;
+                        blue[pixel] += rgb & 0xff;
+                        count[pixel]++;
+                    }
+                }
+            }
+        }
+
+        int[] rgb = new int[width * height];
+        for (int pixel = 0; pixel < rgb.length; pixel++) {
+            int n = Math.max(1, count[pixel]);
+            rgb[pixel] = (red[pixel] / n) << 16 | (green[pixel] / n) << 8 | blue[pixel] / n;
+        }
+        return rgb;
+    }
+
+    private static Entry join(CompletableFuture<Entry> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean contains(int level, int tileX, int tileY) {
+        if (level < 0 || level > maxLevel || tileX < 0 || tileY < 0) {
+            return false;
+        }
+        int span = cellsPerTile(level);
+        return (long) tileX * span < boardCanvas.getWidth() && (long) tileY * span < boardCanvas.getHeight();
+    }
+
+    private long version(TileKey key) {
+        return versions[key.level()].get(key.tileX() * tilesPerSide(key.level()) + key.tileY());
+    }
+
+    private int cellsPerTile(int level) {
+        return tileSize << (maxLevel - level);
+    }
+
+    private int tilesPerSide(int level) {
+        return 1 << level;
+    }
+
+    private String etag(TileKey key, long version) {
+        return "\"" + generation + "-" + key.level() + "-" + key.tileX() + "-" + key.tileY() + "-" + version + "\"";
+    }
+
+    private synchronized Entry cached(TileKey key) {
+        return cache.get(key);
+    }
+
+    private synchronized void store(TileKey key, Entry entry) {
+        if (entry.bytes() > cacheBytes) {
+            return;
+        }
+        Entry previous = cache.get(key);
+        if (previous != null && previous.tile().version() >= entry.tile().version()) {
+            return;
+        }
+        cache.put(key, entry);
+        if (previous != null) {
+            cachedBytes -= previous.bytes();
+        }
+        cachedBytes += entry.bytes();
+        Iterator<Entry> eldest = cache.values().iterator();
+        while (cachedBytes > cacheBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    public record RenderedTile(long version, String etag, byte[] png) {
+    }
+
+    /**
+     * A rendered tile with its pixels, which the level above is averaged from.
+     */
+    private record Entry(RenderedTile tile, int level, int width, int height, int[] rgb, long renderedAt) {
+
+        long bytes() {
+            return tile.png().length + (long) rgb.length * Integer.BYTES;
+        }
+    }
+
+    private record TileKey(int level, int tileX, int tileY) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.codec.TimelapseCodec;
+import com.pixelhub.backend.exception.TimelapseBusyException;
+import com.pixelhub.backend.model.board.BoardSnapshot;
+import com.pixelhub.backend.repository.PixelStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelapseService {
+
+    private final BoardKeyframeService boardKeyframeService;
+    private final PixelStore pixelStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.timelapse.max-concurrent:2}")
+    private int maxConcurrent;
+    @Value("${app.timelapse.max-frames:10000}")
+    private int maxFrames;
+    @Value("${app.timelapse.cache-bytes:67108864}")
+    private long cacheBytes;
+
+    private Semaphore permits;
+    private final Map<Key, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    private void init() {
+        permits = new Semaphore(maxConcurrent);
+        cacheHits = Counter.builder("pixelhub.timelapse.cache").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("pixelhub.timelapse.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Validates the request and takes one of the {@code app.timelapse.max-concurrent} export
+     * slots, so that both fail before the response starts. The returned export streams the
+     * timelapse frame by frame while the pixel log is read and releases the slot when done; only
+     * exports of settled ranges up to {@code app.timelapse.cache-bytes} are kept in memory.
+     */
+    public Export export(Instant from, Instant to, Duration interval) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Timelapse needs from < to");
+        }
+        // The format stores the interval in milliseconds.
+        if (interval.compareTo(Duration.ofMillis(1)) < 0 || interval.getNano() % 1_000_000 != 0) {
+            throw new IllegalArgumentException("Timelapse interval must be a whole number of milliseconds, at least 1 ms");
+        }
+        Duration span = Duration.between(from, to);
+        long frames = span.dividedBy(interval);
+        if (interval.multipliedBy(frames).compareTo(span) < 0) {
+            frames++;
+        }
+        if (frames > maxFrames) {
+            throw new IllegalArgumentException("Timelapse would have " + frames + " frames, the limit is " + maxFrames);
+        }
+
+        Key key = new Key(from, to, interval);
+        byte[] cached = cached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return out -> out.write(cached);
+        }
+        cacheMisses.increment();
+
+        if (!permits.tryAcquire()) {
+            throw new TimelapseBusyException("Too many timelapse exports in progress, try again later");
+        }
+        // Only ranges that the write-behind queue can no longer change are worth keeping.
+        boolean cacheable = !to.isAfter(boardKeyframeService.settledUntil());
+        int frameCount = (int) frames;
+        return out -> {
+            try {
+                CapturingOutputStream capture = new CapturingOutputStream(out, cacheable ? cacheBytes : 0);
+                render(from, to, interval, frameCount, capture);
+                if (capture.captured() != null) {
+                    store(key, capture.captured());
+                }
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    private void render(Instant from, Instant to, Duration interval, int frames, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        BoardSnapshot initial = boardKeyframeService.getBoardStateAtTime(from);
+        TimelapseCodec.Writer writer = TimelapseCodec.writer(out, initial, from.toEpochMilli(), interval.toMillis(), frames);
+
+        int width = initial.width();
+        Map<Integer, Integer> changes = new LinkedHashMap<>();
+        Instant[] frameEnd = {from.plus(interval)};
+        int[] written = {0};
+        try {
+            pixelStore.forEachPlacementBetween(from, to, (x, y, color, placedAt) -> {
+                try {
+                    while (placedAt.isAfter(frameEnd[0])) {
+                        writer.writeFrame(changes);
+                        changes.clear();
+                        frameEnd[0] = frameEnd[0].plus(interval);
+                        written[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                changes.put(y * width + x, color);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        while (written[0] < frames) {
+            writer.writeFrame(changes);
+            changes.clear();
+            written[0]++;
+        }
+        writer.flush();
+
+        log.info("Streamed timelapse {}..{} every {} ({} frames, {} bytes) in {} ms", from, to, interval,
+                frames, writer.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private synchronized byte[] cached(Key key) {
+        return cache.get(key);
+    }
+
+    private synchronized void store(Key key, byte[] rendered) {
+        if (rendered.length > cacheBytes || cache.containsKey(key)) {
+            return;
+        }
+        cache.put(key, rendered);
+        cachedBytes += rendered.length;
+        Iterator<byte[]> eldest = cache.values().iterator();
+        while (cachedBytes > cacheBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private record Key(Instant from, Instant to, Duration interval) {
+    }
+
+    /**
+     * Passes everything through and keeps a copy while it stays within {@code limit} bytes.
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+
+        private final long limit;
+        private ByteArrayOutputStream copy;
+
+        private CapturingOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+            this.copy = limit > 0 ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (keep(1)) {
+                copy.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (keep(len)) {
+                copy.write(b, off, len);
+            }
+        }
+
+        private boolean keep(int length) {
+            if (copy != null && copy.size() + (long) length > limit) {
+                copy = null;
+            }
+            return copy != null;
+        }
+
+        private byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.pixelhub.backend.service;
 
 import com.pixelhub.backend.exception.NonUniqueUsernameException;
+import com.pixelhub.backend.model.dto.UserDto;
+import com.pixelhub.backend.model.dto.UserRankDto;
 import com.pixelhub.backend.model.entity.User;
 import com.pixelhub.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.time.Instant;
 
 @Service
@@ -15,16 +18,25 @@ import java.time.Instant;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final LeaderboardService leaderboardService;
 
-    public List<User> getLeaders() {
-        return userRepository.findTop10ByOrderByPixelCountDesc();
+    public List<UserDto> getLeaders(Integer limit) {
+        return limit == null ? leaderboardService.top() : leaderboardService.top(limit);
+    }
+
+    public Optional<UserRankDto> getRank(String nickname) {
+        return leaderboardService.rankOf(nickname);
     }
 
     @Value("${app.rate-limit-seconds}")
     private long rateLimitSeconds;
 
+    public Optional<User> findByNickname(String nickname) {
+        return userRepository.findByNickname(nickname);
+    }
+
     public boolean existsByNickname(String nickname) {
-        return userRepository.findByNickname(nickname).isPresent();
+        return findByNickname(nickname).isPresent();
     }
 
     public User createByUsername(String username) {
@@ -35,6 +47,8 @@ public class UserService {
         user.setNickname(username);
         user.setPixelCount(0L);
         user.setLastPlacedAt(Instant.now().minusSeconds(rateLimitSeconds));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        leaderboardService.register(saved.getNickname());
+        return saved;
     }
 }
\ No newline at end of file
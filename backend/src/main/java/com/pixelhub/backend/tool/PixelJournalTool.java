@@ -0,0 +1,102 @@
+package com.pixelhub.backend.tool;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+import com.pixelhub.backend.repository.JdbcPixelStore;
+import com.pixelhub.backend.repository.JournalPixelStore;
+import com.pixelhub.backend.repository.PixelStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies the placement log between the {@code pixels} table and a pixel journal directory.
+ * <pre>
+ * PixelJournalTool import &lt;journal-dir&gt;   pixels table -&gt; journal
+ * PixelJournalTool export &lt;journal-dir&gt;   journal -&gt; pixels and board_cells tables
+ * </pre>
+ * The database is taken from {@code SPRING_DATASOURCE_URL}, {@code SPRING_DATASOURCE_USERNAME}
+ * and {@code SPRING_DATASOURCE_PASSWORD}. The target must be empty. The table has no user
+ * column, so imported records carry user id 0, and user pixel counts are left as they are.
+ */
+public final class PixelJournalTool {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int FETCH_SIZE = 10_000;
+
+    private PixelJournalTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Usage: PixelJournalTool import|export <journal-dir>");
+            System.exit(2);
+        }
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                setting("SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/pixelhub"),
+                setting("SPRING_DATASOURCE_USERNAME", "user"),
+                setting("SPRING_DATASOURCE_PASSWORD", "password"),
+                true);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        JdbcPixelStore table = new JdbcPixelStore(dataSource, FETCH_SIZE);
+        // Coordinates are checked against the record format, not against the configured canvas.
+        try (JournalPixelStore journal = new JournalPixelStore(Path.of(args[1]), 64 << 20, 0x10000, 0x10000)) {
+            Instant until = Instant.now();
+            long copied;
+            if (args[0].equals("import")) {
+                require(journal.forEachCurrent((x, y, color) -> { }) == 0, "journal " + args[1] + " is not empty");
+                // The cursor only streams inside a transaction.
+                copied = transactionTemplate.execute(status -> copy(table, until, journal::append));
+            } else {
+                Long rows = new JdbcTemplate(dataSource).queryForObject("SELECT count(*) FROM pixels", Long.class);
+                require(rows != null && rows == 0, "pixels table is not empty");
+                copied = copy(journal, until,
+                        batch -> transactionTemplate.executeWithoutResult(status -> table.append(batch)));
+            }
+            System.out.printf("Copied %d placements%n", copied);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static long copy(PixelStore source, Instant until, BatchSink sink) {
+        List<PlacedPixel> batch = new ArrayList<>(BATCH_SIZE);
+        long[] copied = {0};
+        source.forEachPlacementBetween(Instant.EPOCH, until, (x, y, color, placedAt) -> {
+            batch.add(new PlacedPixel(x, y, color, 0, placedAt));
+            if (batch.size() == BATCH_SIZE) {
+                sink.write(batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            sink.write(batch);
+            copied[0] += batch.size();
+        }
+        return copied[0];
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            System.err.println("Refusing to copy: " + message);
+            System.exit(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchSink {
+        void write(List<PlacedPixel> batch);
+    }
+}
@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+
+-- changeset maxpri:board_keyframes
+CREATE TABLE board_keyframes
+(
+    id       INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    taken_at TIMESTAMP WITHOUT TIME ZONE              NOT NULL,
+    board    BYTEA                                    NOT NULL,
+    CONSTRAINT pk_board_keyframes PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_board_keyframes_taken_at ON board_keyframes(taken_at DESC);
@@ -0,0 +1,17 @@
+-- liquibase formatted sql
+
+-- changeset maxpri:board_cells
+CREATE TABLE board_cells
+(
+    x         INTEGER                     NOT NULL,
+    y         INTEGER                     NOT NULL,
+    color     INTEGER                     NOT NULL,
+    placed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_board_cells PRIMARY KEY (x, y)
+);
+
+-- changeset maxpri:board_cells_backfill
+INSERT INTO board_cells (x, y, color, placed_at)
+SELECT DISTINCT ON (x, y) x, y, color, placed_at
+FROM pixels
+ORDER BY x, y, placed_at DESC, id DESC;
@@ -0,0 +1,50 @@
+-- liquibase formatted sql
+
+-- changeset maxpri:pixels_partitioning-1
+ALTER TABLE pixels RENAME TO pixels_unpartitioned;
+ALTER TABLE pixels_unpartitioned RENAME CONSTRAINT pk_pixels TO pk_pixels_unpartitioned;
+ALTER INDEX idx_pixels_placed_at_xy RENAME TO idx_pixels_unpartitioned_placed_at_xy;
+-- The identity sequence from V1 keeps its name when the table is renamed.
+ALTER SEQUENCE pixels_id_seq RENAME TO pixels_unpartitioned_id_seq;
+
+-- Identity columns cannot live on a partitioned table, so ids come from a plain sequence.
+CREATE SEQUENCE pixels_id_seq AS BIGINT;
+SELECT setval('pixels_id_seq', COALESCE((SELECT MAX(id) FROM pixels_unpartitioned), 0) + 1, false);
+
+CREATE TABLE pixels
+(
+    id        BIGINT DEFAULT nextval('pixels_id_seq') NOT NULL,
+    x         INTEGER                                 NOT NULL,
+    y         INTEGER                                 NOT NULL,
+    color     INTEGER                                 NOT NULL,
+    placed_at TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_pixels PRIMARY KEY (id, placed_at)
+) PARTITION BY RANGE (placed_at);
+
+ALTER SEQUENCE pixels_id_seq OWNED BY pixels.id;
+
+CREATE TABLE pixels_default PARTITION OF pixels DEFAULT;
+
+CREATE INDEX idx_pixels_placed_at_xy ON pixels(placed_at DESC, x, y);
+
+-- changeset maxpri:pixels_partitioning-2 splitStatements:false
+-- One partition per UTC day from the oldest placement up to a week ahead; PixelPartitionService keeps extending it.
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    day := COALESCE((SELECT MIN(placed_at)::DATE FROM pixels_unpartitioned), (now() AT TIME ZONE 'UTC')::DATE);
+    WHILE day <= (now() AT TIME ZONE 'UTC')::DATE + 7 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF pixels FOR VALUES FROM (%L) TO (%L)',
+                       'pixels_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+        day := day + 1;
+    END LOOP;
+END
+$$;
+
+-- changeset maxpri:pixels_partitioning-3
+INSERT INTO pixels (id, x, y, color, placed_at)
+SELECT id, x, y, color, placed_at
+FROM pixels_unpartitioned;
+
+DROP TABLE pixels_unpartitioned;
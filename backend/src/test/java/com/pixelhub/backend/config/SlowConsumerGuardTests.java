@@ -0,0 +1,172 @@
+package com.pixelhub.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pixelhub.backend.codec.PackedPixelCodec;
+import com.pixelhub.backend.service.BoardCanvas;
+import com.pixelhub.backend.service.PixelBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerGuardTests {
+
+    private static final String SESSION_ID = "session-1";
+    private static final int LAG_THRESHOLD = 3;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private SimpleMeterRegistry meterRegistry;
+    private SlowConsumerGuard guard;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BoardCanvas boardCanvas = mock(BoardCanvas.class);
+        when(boardCanvas.latestSequence()).thenReturn(42L);
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new SlowConsumerGuard(boardCanvas, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(guard, "lagThreshold", LAG_THRESHOLD);
+
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn(SESSION_ID);
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        guard.decorate(handler).afterConnectionEstablished(raw);
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+        session = decorated.getValue();
+    }
+
+    @Test
+    void passesUpdatesWhileWrittenFramesKeepUp() throws IOException {
+        for (int i = 0; i < 10 * LAG_THRESHOLD; i++) {
+            Message<?> update = message(PixelBroadcaster.PIXELS_TOPIC);
+            assertThat(guard.preSend(update, channel)).isSameAs(update);
+            session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/pixels\n\n{}\0"));
+        }
+
+        assertThat(resyncs()).isZero();
+    }
+
+    @Test
+    void replacesUpdateWithResyncOnceThresholdIsExceeded() throws IOException {
+        fillToThreshold();
+
+        Message<?> marker = guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel);
+
+        JsonNode payload = new ObjectMapper().readTree((byte[]) marker.getPayload());
+        assertThat(payload.get("type").asText()).isEqualTo("resync");
+        assertThat(payload.get("content").asLong()).isEqualTo(42);
+        assertThat(resyncs()).isEqualTo(1);
+        assertThat(laggingSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void encodesPackedResyncForBinaryTopic() {
+        fillToThreshold();
+
+        Message<?> marker = guard.preSend(message(PixelBroadcaster.PACKED_PIXELS_TOPIC), channel);
+
+        assertThat((byte[]) marker.getPayload()).isEqualTo(PackedPixelCodec.encodeResync(42));
+    }
+
+    @Test
+    void dropsPixelUpdatesUntilMarkerIsWritten() throws IOException {
+        fillToThreshold();
+        guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel);
+
+        assertThat(guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel)).isNull();
+        assertThat(guard.preSend(message(PixelBroadcaster.TILES_TOPIC_PREFIX + "0/0"), channel)).isNull();
+        Message<?> other = message("/topic/leaderboard");
+        assertThat(guard.preSend(other, channel)).isSameAs(other);
+
+        // The frames queued before the marker are written first.
+        for (int i = 0; i <= LAG_THRESHOLD; i++) {
+            session.sendMessage(new TextMessage("MESSAGE\n\n{}\0"));
+            assertThat(guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel)).isNull();
+        }
+        // Then the marker.
+        session.sendMessage(new BinaryMessage("MESSAGE\n\n\0".getBytes(StandardCharsets.US_ASCII)));
+
+        Message<?> update = message(PixelBroadcaster.PIXELS_TOPIC);
+        assertThat(guard.preSend(update, channel)).isSameAs(update);
+        assertThat(laggingSessions()).isZero();
+        assertThat(meterRegistry.counter("pixelhub.stomp.lagging.dropped").count()).isEqualTo(2 + LAG_THRESHOLD + 1);
+    }
+
+    @Test
+    void ignoresFramesThatAreNotMessages() throws IOException {
+        fillToThreshold();
+        guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel);
+
+        for (int i = 0; i < 2 * LAG_THRESHOLD; i++) {
+            session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:1\n\n\0"));
+            session.sendMessage(new BinaryMessage(new byte[] {'\n'}));
+        }
+
+        assertThat(laggingSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void uncountsMessagesThatWereNotSent() {
+        for (int i = 0; i < 10 * LAG_THRESHOLD; i++) {
+            Message<?> update = message(PixelBroadcaster.PIXELS_TOPIC);
+            assertThat(guard.preSend(update, channel)).isSameAs(update);
+            if (i % 2 == 0) {
+                guard.afterSendCompletion(update, channel, false, null);
+            } else {
+                guard.afterSendCompletion(update, channel, true, new IllegalStateException("closed"));
+            }
+        }
+        assertThat(resyncs()).isZero();
+
+        // Messages that were sent stay counted until they are written.
+        for (int i = 0; i <= LAG_THRESHOLD; i++) {
+            Message<?> update = message(PixelBroadcaster.PIXELS_TOPIC);
+            assertThat(guard.preSend(update, channel)).isSameAs(update);
+            guard.afterSendCompletion(update, channel, true, null);
+        }
+        assertThat(guard.preSend(message(PixelBroadcaster.PIXELS_TOPIC), channel)).isNotNull();
+        assertThat(resyncs()).isEqualTo(1);
+    }
+
+    private void fillToThreshold() {
+        for (int i = 0; i <= LAG_THRESHOLD; i++) {
+            Message<?> update = message(PixelBroadcaster.PIXELS_TOPIC);
+            assertThat(guard.preSend(update, channel)).isSameAs(update);
+        }
+    }
+
+    private double resyncs() {
+        return meterRegistry.counter("pixelhub.stomp.lagging.resyncs").count();
+    }
+
+    private double laggingSessions() {
+        return meterRegistry.get("pixelhub.stomp.lagging.sessions").gauge().value();
+    }
+
+    private static Message<byte[]> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
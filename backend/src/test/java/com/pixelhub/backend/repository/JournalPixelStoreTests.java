@@ -0,0 +1,119 @@
+package com.pixelhub.backend.repository;
+
+import com.pixelhub.backend.model.board.PlacedPixel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalPixelStoreTests {
+
+    private static final Instant START = Instant.parse("2026-10-18T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsPlacementsAndPositions() throws IOException {
+        try (JournalPixelStore store = open(100)) {
+            store.append(List.of(pixel(10, 0), pixel(20, 1), pixel(30, 2)));
+
+            List<String> placements = new ArrayList<>();
+            store.forEachPlacementBetween(START.minusSeconds(1), START.plusSeconds(2),
+                    (x, y, color, placedAt) -> placements.add(x + "," + y + "," + color + "@" + placedAt));
+            assertThat(placements).containsExactly(
+                    "10,11,12@" + START,
+                    "20,21,22@" + START.plusSeconds(1),
+                    "30,31,32@" + START.plusSeconds(2));
+
+            List<Integer> replayed = new ArrayList<>();
+            assertThat(store.replayAfter(1, (x, y, color) -> replayed.add(x))).isEqualTo(3);
+            assertThat(replayed).containsExactly(20, 30);
+            assertThat(store.forEachLatestAt(START.plusSeconds(1), (x, y, color) -> { })).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndKeepsPositionsContiguous() throws IOException {
+        try (JournalPixelStore store = open(4)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(List.of(pixel(i, i)));
+            }
+
+            assertThat(segments()).hasSize(3);
+            List<Integer> replayed = new ArrayList<>();
+            assertThat(store.replayAfter(5, (x, y, color) -> replayed.add(x))).isEqualTo(10);
+            assertThat(replayed).containsExactly(5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void recoversUpToTheFirstTornRecordAndZeroesTheRest() throws IOException {
+        try (JournalPixelStore store = open(100)) {
+            for (int i = 0; i < 5; i++) {
+                store.append(List.of(pixel(i, i)));
+            }
+        }
+        // Damage the fourth record as if its page only partly reached the disk.
+        try (FileChannel channel = FileChannel.open(segments().getFirst(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 3L * JournalPixelStore.RECORD_BYTES + 12);
+        }
+
+        try (JournalPixelStore store = open(100)) {
+            List<Integer> recovered = new ArrayList<>();
+            assertThat(store.replayAfter(0, (x, y, color) -> recovered.add(x))).isEqualTo(3);
+            assertThat(recovered).containsExactly(0, 1, 2);
+
+            // The intact fifth record must not resurface once the log grows past it again.
+            store.append(List.of(pixel(99, 10)));
+            store.append(List.of(pixel(98, 11)));
+            List<Integer> replayed = new ArrayList<>();
+            assertThat(store.replayAfter(0, (x, y, color) -> replayed.add(x))).isEqualTo(5);
+            assertThat(replayed).containsExactly(0, 1, 2, 99, 98);
+        }
+    }
+
+    @Test
+    void fillsARecoveredSegmentToItsOwnSizeAfterTheSettingChanged() throws IOException {
+        try (JournalPixelStore store = open(10)) {
+            for (int i = 0; i < 6; i++) {
+                store.append(List.of(pixel(i, i)));
+            }
+        }
+
+        try (JournalPixelStore store = open(4)) {
+            for (int i = 6; i < 12; i++) {
+                store.append(List.of(pixel(i, i)));
+            }
+            assertThat(segments()).hasSize(2);
+            List<Integer> replayed = new ArrayList<>();
+            assertThat(store.replayAfter(0, (x, y, color) -> replayed.add(x))).isEqualTo(12);
+            assertThat(replayed).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+        }
+    }
+
+    private JournalPixelStore open(int segmentRecords) {
+        return new JournalPixelStore(directory, segmentRecords * JournalPixelStore.RECORD_BYTES, 2000, 2000);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static PlacedPixel pixel(int x, int second) {
+        return new PlacedPixel(x, x + 1, x + 2, 7, START.plusSeconds(second));
+    }
+}
@@ -0,0 +1,52 @@
+package com.pixelhub.backend.service;
+
+import com.pixelhub.backend.model.board.RelayedPixel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PixelRelayTests {
+
+    @Test
+    void loopbackDeliversToOtherRelaysOnTheBus() {
+        LoopbackPixelRelay.Bus bus = new LoopbackPixelRelay.Bus();
+        LoopbackPixelRelay first = new LoopbackPixelRelay(bus);
+        LoopbackPixelRelay second = new LoopbackPixelRelay(bus);
+        List<RelayedPixel> firstReceived = new ArrayList<>();
+        List<RelayedPixel> secondReceived = new ArrayList<>();
+        first.subscribe(firstReceived::addAll);
+        second.subscribe(secondReceived::addAll);
+
+        first.publish(new RelayedPixel(1, 2, 3, "alice", Instant.EPOCH));
+
+        assertThat(firstReceived).isEmpty();
+        assertThat(secondReceived).containsExactly(new RelayedPixel(1, 2, 3, "alice", Instant.EPOCH));
+    }
+
+    @Test
+    void postgresPayloadsStayUnderTheNotifyLimitAndRoundTrip() {
+        List<RelayedPixel> pixels = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            pixels.add(new RelayedPixel(i % 2000, 1999 - i % 2000, i % 128, "painter-" + i + "-ё",
+                    Instant.parse("2026-10-18T12:00:00Z").plus(i, ChronoUnit.MICROS)));
+        }
+
+        List<String> payloads = PostgresPixelRelay.encode(42L, pixels);
+
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allSatisfy(payload ->
+                assertThat(payload.length()).isLessThanOrEqualTo(PostgresPixelRelay.MAX_PAYLOAD_BYTES));
+        List<RelayedPixel> decoded = new ArrayList<>();
+        for (String payload : payloads) {
+            PostgresPixelRelay.Batch batch = PostgresPixelRelay.decode(payload);
+            assertThat(batch.nodeId()).isEqualTo(42L);
+            decoded.addAll(batch.pixels());
+        }
+        assertThat(decoded).isEqualTo(pixels);
+    }
+}
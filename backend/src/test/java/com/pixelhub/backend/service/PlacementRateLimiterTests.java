@@ -0,0 +1,74 @@
+package com.pixelhub.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlacementRateLimiterTests {
+
+    private PlacementRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new PlacementRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "rateLimitSeconds", 30);
+    }
+
+    @Test
+    void rejectsSecondPlacementWithinCooldown() {
+        assertThat(rateLimiter.tryAcquire(1)).isTrue();
+        assertThat(rateLimiter.tryAcquire(1)).isFalse();
+        assertThat(rateLimiter.tryAcquire(2)).isTrue();
+    }
+
+    @Test
+    void grantsExactlyOneOfConcurrentPlacements() throws InterruptedException {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (rateLimiter.tryAcquire(1)) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsActiveEntriesOnEviction() {
+        rateLimiter.tryAcquire(1);
+        rateLimiter.evictIdle();
+
+        assertThat(rateLimiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    void appliesCooldownOfSeededPlacement() {
+        rateLimiter.seed(1, Instant.now().minusSeconds(10));
+        rateLimiter.seed(2, Instant.now().minusSeconds(60));
+
+        assertThat(rateLimiter.tryAcquire(1)).isFalse();
+        assertThat(rateLimiter.tryAcquire(2)).isTrue();
+    }
+}
@@ -0,0 +1,74 @@
+package com.pixelhub.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlacementRingTests {
+
+    @Test
+    void drainsInOfferOrderAndRejectsWhenFull() {
+        PlacementRing ring = new PlacementRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i, i, i, i, "user-" + i, false, 0)).isTrue();
+        }
+        assertThat(ring.offer(4, 4, 4, 4, "user-4", false, 0)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drain((x, y, color, userId, nickname, remote, placedAt, offeredAt) -> drained.add(x), 2)).isEqualTo(2);
+        assertThat(ring.offer(4, 4, 4, 4, "user-4", false, 0)).isTrue();
+        ring.drain((x, y, color, userId, nickname, remote, placedAt, offeredAt) -> drained.add(x), 10);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+
+    @Test
+    void keepsEachProducersOrderUnderConcurrentOffers() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 10_000;
+        PlacementRing ring = new PlacementRing(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(i, 0, 0, producer, null, false, 0)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        int[] nextExpected = new int[producers];
+        int[] outOfOrder = new int[1];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            received += ring.drain((x, y, color, userId, nickname, remote, placedAt, offeredAt) -> {
+                if (nextExpected[userId]++ != x) {
+                    outOfOrder[0]++;
+                }
+            }, 256);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(outOfOrder[0]).isZero();
+    }
+}
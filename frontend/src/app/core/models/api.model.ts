@@ -4,10 +4,28 @@ export interface PixelDto {
   c: number;
 }
 
+export interface PixelBatchDto {
+  seq: number;
+  pixels: PixelDto[];
+}
+
 export interface BoardResponse {
   pixels: PixelDto[];
 }
 
+export interface BoardSnapshot {
+  width: number;
+  height: number;
+  cells: Uint8Array;
+  sequence: number;
+}
+
+export interface BoardDeltaResponse {
+  seq: number;
+  full: boolean;
+  pixels: PixelDto[];
+}
+
 export interface UserDto {
   nickname: string;
   pixelCount: number;
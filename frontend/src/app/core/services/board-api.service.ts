@@ -1,20 +1,48 @@
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpResponse } from '@angular/common/http';
 import { Injectable, inject } from '@angular/core';
 import { firstValueFrom } from 'rxjs';
-import { LeaderBoardResponse, BoardResponse } from '../models/api.model';
+import { LeaderBoardResponse, BoardSnapshot, BoardDeltaResponse } from '../models/api.model';
 import { ConfigService } from './config.service';
 
+const BOARD_MEDIA_TYPE = 'application/vnd.pixelhub.board';
+const BOARD_HEADER_SIZE = 14;
+const BOARD_ENCODING_RAW = 0;
+const BOARD_ENCODING_RLE = 1;
+const BOARD_ENCODING_DEFLATE = 2;
+const SEQUENCE_HEADER = 'X-Board-Sequence';
+
 @Injectable({ providedIn: 'root' })
 export class BoardApiService {
   private readonly http = inject(HttpClient);
   private readonly configService = inject(ConfigService);
 
-  async fetchBoard(token: string): Promise<BoardResponse> {
+  async fetchBoard(token: string): Promise<BoardSnapshot> {
     const url = this.resolveUrl(this.configService.config().boardEndpoint);
     const response = await firstValueFrom(
-      this.http.get<BoardResponse>(url, { headers: this.buildAuthHeaders(token) })
+      this.http.get(url, {
+        headers: this.buildAuthHeaders(token, { Accept: BOARD_MEDIA_TYPE }),
+        observe: 'response',
+        responseType: 'arraybuffer'
+      })
+    );
+    return this.decodeBoard(response);
+  }
+
+  async fetchBoardDelta(token: string, since: number): Promise<BoardDeltaResponse | BoardSnapshot> {
+    const url = this.resolveUrl('/board-delta');
+    const params = { since: String(since) };
+    const response = await firstValueFrom(
+      this.http.get(url, {
+        headers: this.buildAuthHeaders(token, { Accept: `application/json, ${BOARD_MEDIA_TYPE}` }),
+        params,
+        observe: 'response',
+        responseType: 'arraybuffer'
+      })
     );
-    return response;
+    if (response.headers.get('Content-Type')?.startsWith(BOARD_MEDIA_TYPE)) {
+      return this.decodeBoard(response);
+    }
+    return JSON.parse(new TextDecoder().decode(response.body ?? new ArrayBuffer(0))) as BoardDeltaResponse;
   }
 
   async fetchLeaderboard(token: string): Promise<LeaderBoardResponse> {
@@ -24,16 +52,46 @@ export class BoardApiService {
     );
   }
 
-  async fetchBoardHistory(token: string, timestamp: string): Promise<BoardResponse> {
+  async fetchBoardHistory(token: string, timestamp: string): Promise<BoardSnapshot> {
     const url = this.resolveUrl('/board-history');
     const params = { timestamp };
     const response = await firstValueFrom(
-      this.http.get<BoardResponse>(url, {
-        headers: this.buildAuthHeaders(token),
-        params
+      this.http.get(url, {
+        headers: this.buildAuthHeaders(token, { Accept: BOARD_MEDIA_TYPE }),
+        params,
+        observe: 'response',
+        responseType: 'arraybuffer'
       })
     );
-    return response;
+    return this.decodeBoard(response);
+  }
+
+  private async decodeBoard(response: HttpResponse<ArrayBuffer>): Promise<BoardSnapshot> {
+    const buffer = response.body ?? new ArrayBuffer(0);
+    const sequence = Number(response.headers.get(SEQUENCE_HEADER) ?? 0);
+    const view = new DataView(buffer);
+    const encoding = view.getUint8(5);
+    const width = view.getInt32(6);
+    const height = view.getInt32(10);
+    const payload = new Uint8Array(buffer, BOARD_HEADER_SIZE);
+
+    let cells: Uint8Array;
+    if (encoding === BOARD_ENCODING_RAW) {
+      cells = payload;
+    } else if (encoding === BOARD_ENCODING_RLE) {
+      cells = new Uint8Array(width * height);
+      let offset = 0;
+      for (let i = 0; i + 1 < payload.length; i += 2) {
+        cells.fill(payload[i + 1], offset, offset + payload[i]);
+        offset += payload[i];
+      }
+    } else if (encoding === BOARD_ENCODING_DEFLATE) {
+      const stream = new Blob([payload]).stream().pipeThrough(new DecompressionStream('deflate'));
+      cells = new Uint8Array(await new Response(stream).arrayBuffer());
+    } else {
+      throw new Error(`Unsupported board encoding: ${encoding}`);
+    }
+    return { width, height, cells, sequence };
   }
 
   private resolveUrl(path: string): string {
@@ -21,14 +21,35 @@ export class BoardLoaderService {
     }
     this._loading.set(true);
     try {
-      const response = await this.boardApi.fetchBoard(token);
-      this.canvasState.loadPixels(response.pixels ?? []);
-      this.statusService.push(`Loaded ${response.pixels.length} pixels.`, 'info');
+      const snapshot = await this.boardApi.fetchBoard(token);
+      const painted = this.canvasState.loadSnapshot(snapshot);
+      this.statusService.push(`Loaded ${painted} pixels.`, 'info');
     } finally {
       this._loading.set(false);
     }
   }
 
+  async syncBoard(): Promise<void> {
+    const token = this.authService.token();
+    if (!token || this.canvasState.historyMode()) {
+      return;
+    }
+    if (this.canvasState.sequence === 0) {
+      await this.initializeBoard();
+      return;
+    }
+    const response = await this.boardApi.fetchBoardDelta(token, this.canvasState.sequence);
+    if ('cells' in response) {
+      this.canvasState.loadSnapshot(response);
+      return;
+    }
+    if (response.full) {
+      this.canvasState.clearBoard();
+    }
+    this.canvasState.applyPixels(response.pixels);
+    this.canvasState.advanceSequence(response.seq);
+  }
+
   async loadBoardHistory(timestamp: string): Promise<void> {
     const token = this.authService.token();
     if (!token) {
@@ -37,10 +58,10 @@ export class BoardLoaderService {
     }
     this._loading.set(true);
     try {
-      const response = await this.boardApi.fetchBoardHistory(token, timestamp);
-      this.canvasState.loadPixels(response.pixels ?? []);
+      const snapshot = await this.boardApi.fetchBoardHistory(token, timestamp);
+      const painted = this.canvasState.loadSnapshot(snapshot);
       this.canvasState.setHistoryMode(true, timestamp);
-      this.statusService.push(`Loaded history: ${response.pixels.length} pixels at ${new Date(timestamp).toLocaleString()}.`, 'info');
+      this.statusService.push(`Loaded history: ${painted} pixels at ${new Date(timestamp).toLocaleString()}.`, 'info');
     } catch (error: any) {
       const message = error?.error?.message || error?.message || 'Failed to load board history.';
       this.statusService.push(message, 'error');
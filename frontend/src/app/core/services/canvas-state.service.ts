@@ -1,5 +1,5 @@
 import { Injectable, computed, signal } from '@angular/core';
-import { PixelDto } from '../models/api.model';
+import { BoardSnapshot, PixelDto } from '../models/api.model';
 import { PALETTE_HEX } from '../constants/palette.constants';
 import { AppConfig } from '../models/app-config.model';
 
@@ -12,6 +12,7 @@ interface RGBAColor {
 
 const PALETTE_RGBA: RGBAColor[] = PALETTE_HEX.map(hexToRgba);
 const BACKGROUND_COLOR_HEX = '#ffffff';
+const EMPTY_CELL = 0xff;
 const BACKGROUND_COLOR_INDEX = (() => {
   const index = PALETTE_HEX.findIndex(
     (value) => value.toLowerCase() === BACKGROUND_COLOR_HEX
@@ -34,6 +35,7 @@ export class CanvasStateService {
   private imageRevision = signal(0);
   private readonly _historyMode = signal(false);
   private readonly _historyTimestamp = signal<string | null>(null);
+  private boardSequence = 0;
 
   readonly selectedColor = computed(() => this._selectedColor());
   readonly revision = computed(() => this.imageRevision());
@@ -74,6 +76,39 @@ export class CanvasStateService {
     this.commitImageData();
   }
 
+  get sequence(): number {
+    return this.boardSequence;
+  }
+
+  advanceSequence(sequence: number): void {
+    this.boardSequence = Math.max(this.boardSequence, sequence);
+  }
+
+  loadSnapshot(snapshot: BoardSnapshot): number {
+    if (!this.imageData) return 0;
+    this.clearBoard();
+    this.boardSequence = snapshot.sequence;
+    let painted = 0;
+    for (let y = 0; y < snapshot.height; y++) {
+      for (let x = 0; x < snapshot.width; x++) {
+        const c = snapshot.cells[y * snapshot.width + x];
+        if (c !== EMPTY_CELL) {
+          this.applyPixel({ x, y, c }, false);
+          painted++;
+        }
+      }
+    }
+    this.commitImageData();
+    return painted;
+  }
+
+  applyPixels(pixels: PixelDto[]): void {
+    for (const pixel of pixels) {
+      this.applyPixel(pixel, false);
+    }
+    this.commitImageData();
+  }
+
   applyPixel(pixel: PixelDto, commit = true): void {
     if (!this.isValidPixel(pixel)) {
       return;
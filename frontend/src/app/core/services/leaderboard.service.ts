@@ -23,6 +23,10 @@ export class LeaderboardService {
     this._leaders.set(response.users ?? []);
   }
 
+  update(users: UserDto[]): void {
+    this._leaders.set(users);
+  }
+
   clear(): void {
     this._leaders.set([]);
   }
@@ -4,13 +4,17 @@ import { Client as StompClient, IFrame, IMessage } from '@stomp/stompjs';
 import { ConfigService } from './config.service';
 import { CanvasStateService } from './canvas-state.service';
 import { StatusService } from './status.service';
-import { PixelDto } from '../models/api.model';
+import { BoardLoaderService } from './board-loader.service';
+import { LeaderboardService } from './leaderboard.service';
+import { LeaderBoardResponse, PixelBatchDto, PixelDto } from '../models/api.model';
 
 @Injectable({ providedIn: 'root' })
 export class RealtimeService {
   private readonly configService = inject(ConfigService);
   private readonly canvasState = inject(CanvasStateService);
   private readonly statusService = inject(StatusService);
+  private readonly boardLoader = inject(BoardLoaderService);
+  private readonly leaderboardService = inject(LeaderboardService);
 
   private client: StompClient | null = null;
   private readonly _connected = signal(false);
@@ -34,7 +38,12 @@ export class RealtimeService {
       }
     });
 
+    let reconnecting = false;
     this.client.onConnect = () => {
+      if (reconnecting) {
+        this.resync();
+      }
+      reconnecting = true;
       this._connected.set(true);
       this.statusService.push('Connected to canvas.', 'success');
       this.client?.subscribe(this.configService.config().pixelTopic, (message: IMessage) => {
@@ -43,14 +52,27 @@ export class RealtimeService {
           if (this.canvasState.historyMode()) {
             return;
           }
-          const payload = JSON.parse(message.body) as { type: string; content: PixelDto };
-          if (payload.type === 'get' && payload.content) {
-            this.canvasState.applyPixel(payload.content);
+          const payload = JSON.parse(message.body) as { type: string; content: PixelBatchDto };
+          if (payload.type === 'batch' && payload.content?.pixels) {
+            this.canvasState.applyPixels(payload.content.pixels);
+            this.canvasState.advanceSequence(payload.content.seq);
+          } else if (payload.type === 'resync') {
+            this.resync();
           }
         } catch (error) {
           console.error('Failed to parse incoming pixel message', error);
         }
       });
+      this.client?.subscribe('/topic/leaderboard', (message: IMessage) => {
+        try {
+          const payload = JSON.parse(message.body) as { type: string; content: LeaderBoardResponse };
+          if (payload.type === 'leaderboard' && payload.content?.users) {
+            this.leaderboardService.update(payload.content.users);
+          }
+        } catch (error) {
+          console.error('Failed to parse leaderboard message', error);
+        }
+      });
       onQueueFlush?.();
     };
 
@@ -82,6 +104,10 @@ export class RealtimeService {
     });
   }
 
+  private resync(): void {
+    this.boardLoader.syncBoard().catch((error) => console.error('Failed to resync board', error));
+  }
+
   disconnect(): void {
     if (this.client) {
       this.client.deactivate();